@@ -1,16 +1,53 @@
 package com.gamestudio24.martianrun;
 
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Debug;
 
 import com.badlogic.gdx.backends.android.AndroidApplication;
 import com.badlogic.gdx.backends.android.AndroidApplicationConfiguration;
 import com.gamestudio24.martianrun.MartianRun;
+import com.gamestudio24.martianrun.telemetry.GcCounter;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
+import com.gamestudio24.martianrun.utils.GameOptions;
 
 public class AndroidLauncher extends AndroidApplication {
 	@Override
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new MartianRun(), config);
+		GameOptions options = new GameOptions();
+		// High density panels can be fill rate bound, let the world drop below native resolution
+		options.setDynamicResolution(true);
+		options.setTextureMemoryBudget(getTextureMemoryBudget());
+		// A single core would only add context switches to every frame
+		options.setPhysicsThread(Runtime.getRuntime().availableProcessors() > 1);
+		Telemetry.getInstance().setGcCounter(new GcCounter() {
+			@Override
+			public long getCollectionCount () {
+				// ART only exposes its counters from Marshmallow on
+				if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+					return -1;
+				}
+				String count = Debug.getRuntimeStat("art.gc.gc-count");
+				return count != null ? Long.parseLong(count) : -1;
+			}
+		});
+		initialize(new MartianRun(options), config);
+	}
+
+	/**
+	 * A 32nd of the heap class: 8888 textures fit from 96MB up, 1GB devices drop to ETC1 and
+	 * low RAM ones to 4444 sprites as well
+	 */
+	private long getTextureMemoryBudget () {
+		ActivityManager activityManager = (ActivityManager)getSystemService(Context.ACTIVITY_SERVICE);
+		long budget = activityManager.getMemoryClass() * 1024L * 1024L / 32;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && activityManager.isLowRamDevice()) {
+			budget /= 2;
+		}
+		return budget;
 	}
 }
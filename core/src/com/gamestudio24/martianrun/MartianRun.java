@@ -3,11 +3,17 @@
 package com.gamestudio24.martianrun;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
 import com.gamestudio24.martianrun.screens.GameScreen;
+import com.gamestudio24.martianrun.screens.SimulationScreen;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
 import com.gamestudio24.martianrun.utils.AssetsManager;
 import com.gamestudio24.martianrun.utils.AudioUtils;
+import com.gamestudio24.martianrun.utils.Constants;
 import com.gamestudio24.martianrun.utils.GameEventListener;
 import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameOptions;
+import com.gamestudio24.martianrun.utils.RandomUtils;
 
 public class MartianRun extends Game {
 
@@ -15,20 +21,55 @@ public class MartianRun extends Game {
 		GameManager.getInstance().setGameEventListener(listener);
 	}
 
+	public MartianRun(GameEventListener listener, GameOptions options) {
+		this(listener);
+		GameManager.getInstance().setOptions(options);
+	}
+
+	public MartianRun(GameOptions options) {
+		GameManager.getInstance().setOptions(options);
+	}
+
 	public MartianRun() {
 
 	}
 
 	@Override
 	public void create() {
+		GameOptions options = GameManager.getInstance().getOptions();
+		if (options.isSeeded()) {
+			RandomUtils.setSeed(options.getSeed());
+		}
+		if (options.isHeadless()) {
+			// No GL context, so no assets and no stage
+			setScreen(new SimulationScreen(options));
+			return;
+		}
+		if (options.isTelemetry()) {
+			Telemetry.getInstance().start(Gdx.files.local(Constants.TELEMETRY_DIRECTORY).file());
+		}
 		//if(GameEventListener)
 		AssetsManager.loadAssets();
 		setScreen(new GameScreen());
 	}
 
+	@Override
+	public void pause() {
+		super.pause();
+		// The process may be killed while in the background
+		Telemetry.getInstance().flush();
+	}
+
 	@Override
 	public void dispose() {
 		super.dispose();
+		Telemetry.getInstance().stop();
+		if (getScreen() != null) {
+			getScreen().dispose();
+		}
+		if (GameManager.getInstance().getOptions().isHeadless()) {
+			return;
+		}
 		AudioUtils.dispose();
 		AssetsManager.dispose();
 	}
@@ -1,78 +0,0 @@
-/*
- * Copyright (c) 2014. William Mora
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.gamestudio24.martianrun.actors;
-
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.gamestudio24.martianrun.enums.GameState;
-import com.gamestudio24.martianrun.utils.AssetsManager;
-import com.gamestudio24.martianrun.utils.Constants;
-import com.gamestudio24.martianrun.utils.GameManager;
-
-public class Background extends Actor {
-
-    private final TextureRegion textureRegion;
-    private Rectangle textureRegionBounds1;
-    private Rectangle textureRegionBounds2;
-    private int speed = 100;
-
-    public Background() {
-        textureRegion = AssetsManager.getTextureRegion(Constants.BACKGROUND_ASSETS_ID);
-        textureRegionBounds1 = new Rectangle(0 - Constants.APP_WIDTH / 2, 0, Constants.APP_WIDTH, Constants.APP_HEIGHT);
-        textureRegionBounds2 = new Rectangle(Constants.APP_WIDTH / 2, 0, Constants.APP_WIDTH, Constants.APP_HEIGHT);
-    }
-
-    @Override
-    public void act(float delta) {
-
-        if (GameManager.getInstance().getGameState() != GameState.RUNNING) {
-            return;
-        }
-
-        if (leftBoundsReached(delta)) {
-            resetBounds();
-        } else {
-            updateXBounds(-delta);
-        }
-    }
-
-    @Override
-    public void draw(Batch batch, float parentAlpha) {
-        super.draw(batch, parentAlpha);
-        batch.draw(textureRegion, textureRegionBounds1.x, textureRegionBounds1.y, Constants.APP_WIDTH,
-                Constants.APP_HEIGHT);
-        batch.draw(textureRegion, textureRegionBounds2.x, textureRegionBounds2.y, Constants.APP_WIDTH,
-                Constants.APP_HEIGHT);
-    }
-
-    private boolean leftBoundsReached(float delta) {
-        return (textureRegionBounds2.x - (delta * speed)) <= 0;
-    }
-
-    private void updateXBounds(float delta) {
-        textureRegionBounds1.x += delta * speed;
-        textureRegionBounds2.x += delta * speed;
-    }
-
-    private void resetBounds() {
-        textureRegionBounds1 = textureRegionBounds2;
-        textureRegionBounds2 = new Rectangle(Constants.APP_WIDTH, 0, Constants.APP_WIDTH, Constants.APP_HEIGHT);
-    }
-
-}
@@ -1,69 +0,0 @@
-/*
- * Copyright (c) 2014. William Mora
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.gamestudio24.martianrun.actors;
-
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.scenes.scene2d.Actor;
-import com.gamestudio24.martianrun.box2d.UserData;
-import com.gamestudio24.martianrun.enums.GameState;
-import com.gamestudio24.martianrun.utils.Constants;
-import com.gamestudio24.martianrun.utils.GameManager;
-
-public abstract class GameActor extends Actor {
-
-    protected Body body;
-    protected UserData userData;
-    protected Rectangle screenRectangle;
-
-    public GameActor(Body body) {
-        this.body = body;
-        this.userData = (UserData) body.getUserData();
-        screenRectangle = new Rectangle();
-    }
-
-    @Override
-    public void act(float delta) {
-        super.act(delta);
-
-        if (GameManager.getInstance().getGameState() == GameState.PAUSED) {
-            return;
-        }
-
-        if (body.getUserData() != null) {
-            updateRectangle();
-        } else {
-            // This means the world destroyed the body (enemy or runner went out of bounds)
-            remove();
-        }
-
-    }
-
-    public abstract UserData getUserData();
-
-    private void updateRectangle() {
-        screenRectangle.x = transformToScreen(body.getPosition().x - userData.getWidth() / 2);
-        screenRectangle.y = transformToScreen(body.getPosition().y - userData.getHeight() / 2);
-        screenRectangle.width = transformToScreen(userData.getWidth());
-        screenRectangle.height = transformToScreen(userData.getHeight());
-    }
-
-    protected float transformToScreen(float n) {
-        return Constants.WORLD_TO_SCREEN * n;
-    }
-
-}
@@ -1,89 +0,0 @@
-/*
- * Copyright (c) 2014. William Mora
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.gamestudio24.martianrun.actors;
-
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.gamestudio24.martianrun.box2d.GroundUserData;
-import com.gamestudio24.martianrun.enums.GameState;
-import com.gamestudio24.martianrun.utils.AssetsManager;
-import com.gamestudio24.martianrun.utils.Constants;
-import com.gamestudio24.martianrun.utils.GameManager;
-
-public class Ground extends GameActor {
-
-    private final TextureRegion textureRegion;
-    private Rectangle textureRegionBounds1;
-    private Rectangle textureRegionBounds2;
-    private int speed = 10;
-
-    public Ground(Body body) {
-        super(body);
-        textureRegion = AssetsManager.getTextureRegion(Constants.GROUND_ASSETS_ID);
-        textureRegionBounds1 = new Rectangle(0 - getUserData().getWidth() / 2, 0, getUserData().getWidth(),
-                getUserData().getHeight());
-        textureRegionBounds2 = new Rectangle(getUserData().getWidth() / 2, 0, getUserData().getWidth(),
-                getUserData().getHeight());
-    }
-
-    @Override
-    public GroundUserData getUserData() {
-        return (GroundUserData) userData;
-    }
-
-    @Override
-    public void act(float delta) {
-        super.act(delta);
-
-        if (GameManager.getInstance().getGameState() != GameState.RUNNING) {
-            return;
-        }
-
-        if (leftBoundsReached(delta)) {
-            resetBounds();
-        } else {
-            updateXBounds(-delta);
-        }
-    }
-
-    @Override
-    public void draw(Batch batch, float parentAlpha) {
-        super.draw(batch, parentAlpha);
-        batch.draw(textureRegion, textureRegionBounds1.x, screenRectangle.y, screenRectangle.getWidth(),
-                screenRectangle.getHeight());
-        batch.draw(textureRegion, textureRegionBounds2.x, screenRectangle.y, screenRectangle.getWidth(),
-                screenRectangle.getHeight());
-    }
-
-    private boolean leftBoundsReached(float delta) {
-        return (textureRegionBounds2.x - transformToScreen(delta * speed)) <= 0;
-    }
-
-    private void updateXBounds(float delta) {
-        textureRegionBounds1.x += transformToScreen(delta * speed);
-        textureRegionBounds2.x += transformToScreen(delta * speed);
-    }
-
-    private void resetBounds() {
-        textureRegionBounds1 = textureRegionBounds2;
-        textureRegionBounds2 = new Rectangle(textureRegionBounds1.x + screenRectangle.width, 0, screenRectangle.width,
-                screenRectangle.height);
-    }
-
-}
@@ -17,37 +17,22 @@
 package com.gamestudio24.martianrun.actors;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Align;
-import com.gamestudio24.martianrun.enums.GameState;
 import com.gamestudio24.martianrun.utils.AssetsManager;
-import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.CachedText;
 
 public class Score extends Actor {
 
-    private float score;
-    private int multiplier;
-    private Rectangle bounds;
-    private BitmapFont font;
+    private int score;
+    private CachedText text;
 
     public Score(Rectangle bounds) {
-        this.bounds = bounds;
         setWidth(bounds.width);
         setHeight(bounds.height);
         score = 0;
-        multiplier = 5;
-        font = AssetsManager.getSmallFont();
-    }
-
-    @Override
-    public void act(float delta) {
-        super.act(delta);
-        if (GameManager.getInstance().getGameState() != GameState.RUNNING) {
-            return;
-        }
-        score += multiplier * delta;
+        text = new CachedText(AssetsManager.getSmallFont(), bounds, Align.right);
     }
 
     @Override
@@ -56,15 +41,20 @@ public class Score extends Actor {
         if (getScore() == 0) {
             return;
         }
-        font.draw(batch, String.format("%d", getScore()), bounds.x, bounds.y, bounds.width, Align.right,true);
+        text.draw(batch);
     }
 
     public int getScore() {
-        return (int) Math.floor(score);
+        return score;
     }
 
-    public void setMultiplier(int multiplier) {
-        this.multiplier = multiplier;
+    public void setScore(int score) {
+        // The score only changes a few times per second, lay it out again only when it does
+        if (score == this.score) {
+            return;
+        }
+        this.score = score;
+        text.setNumber(score);
     }
 
 }
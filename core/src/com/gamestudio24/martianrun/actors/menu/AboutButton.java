@@ -40,6 +40,11 @@ public class AboutButton extends GameButton {
                 Constants.ABOUT_REGION_NAME;
     }
 
+    @Override
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        loadTextureRegion();
+    }
+
     @Override
     public void touched() {
         listener.onAbout();
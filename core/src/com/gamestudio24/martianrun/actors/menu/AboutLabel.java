@@ -17,29 +17,28 @@
 package com.gamestudio24.martianrun.actors.menu;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.utils.Align;
 import com.gamestudio24.martianrun.utils.AssetsManager;
+import com.gamestudio24.martianrun.utils.CachedText;
 import com.gamestudio24.martianrun.utils.Constants;
 
 public class AboutLabel extends Actor {
 
-    private Rectangle bounds;
-    private BitmapFont font;
+    private CachedText text;
 
     public AboutLabel(Rectangle bounds) {
-        this.bounds = bounds;
         setWidth(bounds.width);
         setHeight(bounds.height);
-        font = AssetsManager.getSmallFont();
+        text = new CachedText(AssetsManager.getSmallFont(), bounds, Align.center);
+        text.setText(Constants.ABOUT_TEXT);
     }
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
-        font.draw(batch, Constants.ABOUT_TEXT, bounds.x, bounds.y, bounds.width, Align.center,true);
+        text.draw(batch);
     }
 
 }
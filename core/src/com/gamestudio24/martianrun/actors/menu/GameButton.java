@@ -18,12 +18,16 @@ package com.gamestudio24.martianrun.actors.menu;
 
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Button;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.gamestudio24.martianrun.enums.GameState;
 import com.gamestudio24.martianrun.utils.AssetsManager;
+import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameStateListener;
 
-public abstract class GameButton extends Button {
+public abstract class GameButton extends Button implements GameStateListener {
 
     protected Rectangle bounds;
     private Skin skin;
@@ -40,8 +44,7 @@ public abstract class GameButton extends Button {
         addListener(new ClickListener() {
             @Override
             public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
-                touched();
-                loadTextureRegion();
+                press();
                 return true;
             }
         });
@@ -57,6 +60,32 @@ public abstract class GameButton extends Button {
 
     public abstract void touched();
 
+    /**
+     * Does what touching the button does, also used by keyboard and gamepad controls
+     */
+    public void press() {
+        touched();
+        loadTextureRegion();
+    }
+
+    /**
+     * Buttons are subscribed to game state changes while they're on a stage, override to react
+     */
+    @Override
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+
+    }
+
+    @Override
+    protected void setStage(Stage stage) {
+        super.setStage(stage);
+        if (stage != null) {
+            GameManager.getInstance().addGameStateListener(this);
+        } else {
+            GameManager.getInstance().removeGameStateListener(this);
+        }
+    }
+
     public Rectangle getBounds() {
         return bounds;
     }
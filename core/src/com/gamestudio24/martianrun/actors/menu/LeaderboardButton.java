@@ -19,7 +19,6 @@ package com.gamestudio24.martianrun.actors.menu;
 import com.badlogic.gdx.math.Rectangle;
 import com.gamestudio24.martianrun.enums.GameState;
 import com.gamestudio24.martianrun.utils.Constants;
-import com.gamestudio24.martianrun.utils.GameManager;
 
 public class LeaderboardButton extends GameButton {
 
@@ -40,9 +39,8 @@ public class LeaderboardButton extends GameButton {
     }
 
     @Override
-    public void act(float delta) {
-        super.act(delta);
-        if (GameManager.getInstance().getGameState() != GameState.OVER) {
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        if (gameState != GameState.OVER) {
             remove();
         }
     }
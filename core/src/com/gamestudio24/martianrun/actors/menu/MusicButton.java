@@ -30,7 +30,7 @@ public class MusicButton extends GameButton {
     }
 
     public void touched() {
-        if (AudioUtils.getInstance().getMusic().isPlaying()) {
+        if (AudioUtils.getInstance().isMusicPlaying()) {
             AudioUtils.getInstance().pauseMusic();
         }
         AudioUtils.getInstance().toggleMusic();
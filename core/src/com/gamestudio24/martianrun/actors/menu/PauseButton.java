@@ -42,10 +42,11 @@ public class PauseButton extends GameButton {
     }
 
     @Override
-    public void act(float delta) {
-        super.act(delta);
-        if (GameManager.getInstance().getGameState() == GameState.OVER) {
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        if (gameState == GameState.OVER) {
             remove();
+        } else {
+            loadTextureRegion();
         }
     }
 
@@ -17,32 +17,49 @@
 package com.gamestudio24.martianrun.actors.menu;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Align;
 import com.gamestudio24.martianrun.enums.GameState;
 import com.gamestudio24.martianrun.utils.AssetsManager;
+import com.gamestudio24.martianrun.utils.CachedText;
 import com.gamestudio24.martianrun.utils.Constants;
 import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameStateListener;
 
-public class PausedLabel extends Actor {
+public class PausedLabel extends Actor implements GameStateListener {
 
-    private Rectangle bounds;
-    private BitmapFont font;
+    private CachedText text;
 
     public PausedLabel(Rectangle bounds) {
-        this.bounds = bounds;
         setWidth(bounds.width);
         setHeight(bounds.height);
-        font = AssetsManager.getSmallFont();
+        text = new CachedText(AssetsManager.getSmallFont(), bounds, Align.center);
+        text.setText(Constants.PAUSED_LABEL);
+        setVisible(GameManager.getInstance().getGameState() == GameState.PAUSED);
+    }
+
+    @Override
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        // Hidden actors aren't drawn at all
+        setVisible(gameState == GameState.PAUSED);
+    }
+
+    @Override
+    protected void setStage(Stage stage) {
+        super.setStage(stage);
+        if (stage != null) {
+            GameManager.getInstance().addGameStateListener(this);
+        } else {
+            GameManager.getInstance().removeGameStateListener(this);
+        }
     }
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
-        if (GameManager.getInstance().getGameState() == GameState.PAUSED)
-            font.draw(batch, Constants.PAUSED_LABEL, bounds.x, bounds.y, bounds.width, Align.center , true);
+        text.draw(batch);
     }
 
 }
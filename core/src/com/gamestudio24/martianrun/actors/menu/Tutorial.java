@@ -17,49 +17,70 @@
 package com.gamestudio24.martianrun.actors.menu;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.actions.SequenceAction;
 import com.badlogic.gdx.utils.Align;
+import com.gamestudio24.martianrun.enums.AssetGroup;
 import com.gamestudio24.martianrun.enums.GameState;
+import com.gamestudio24.martianrun.enums.TextureAsset;
 import com.gamestudio24.martianrun.utils.AssetsManager;
+import com.gamestudio24.martianrun.utils.CachedText;
 import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameStateListener;
 
-public class Tutorial extends Actor {
+public class Tutorial extends Actor implements GameStateListener {
 
     private TextureRegion textureRegion;
     private Rectangle bounds;
-    private BitmapFont font;
-    private String text;
+    private CachedText text;
+    private boolean released;
 
-    public Tutorial(Rectangle bounds, String assetsId, String text) {
+    /**
+     * Holds on to the {@link AssetGroup#TUTORIAL} assets until it's removed from the stage
+     */
+    public Tutorial(Rectangle bounds, TextureAsset asset, String text) {
         this.bounds = bounds;
-        this.text = text;
-        textureRegion = AssetsManager.getTextureRegion(assetsId);
+        AssetsManager.acquire(AssetGroup.TUTORIAL);
+        textureRegion = AssetsManager.getTextureRegion(asset);
         SequenceAction sequenceAction = new SequenceAction();
         sequenceAction.addAction(Actions.delay(4f));
         sequenceAction.addAction(Actions.removeActor());
         addAction(sequenceAction);
-        font = AssetsManager.getSmallestFont();
+        this.text = new CachedText(AssetsManager.getSmallestFont(), bounds, Align.center);
+        this.text.setText(text);
         setWidth(bounds.width);
         setHeight(bounds.height);
     }
 
     @Override
-    public void act(float delta) {
-        super.act(delta);
-        if (GameManager.getInstance().getGameState() == GameState.OVER) {
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        if (gameState == GameState.OVER) {
             remove();
         }
     }
 
+    @Override
+    protected void setStage(Stage stage) {
+        super.setStage(stage);
+        if (stage != null) {
+            GameManager.getInstance().addGameStateListener(this);
+        } else {
+            GameManager.getInstance().removeGameStateListener(this);
+            if (!released) {
+                released = true;
+                AssetsManager.release(AssetGroup.TUTORIAL);
+            }
+        }
+    }
+
     @Override
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
         batch.draw(textureRegion, bounds.x, bounds.y, bounds.width, bounds.height);
-        font.draw(batch, text, bounds.x, bounds.y, bounds.width, Align.center , true);
+        text.draw(batch);
     }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gamestudio24.martianrun.ai;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
+import com.badlogic.gdx.ai.fsm.StateMachine;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.utils.Constants;
+import com.gamestudio24.martianrun.utils.GameRandom;
+
+/**
+ * Plays the game on its own for soak and performance testing. It jumps over running enemies and
+ * dodges flying ones, timing each action from the enemy's speed and the current
+ * {@link Difficulty}'s jump arc, delayed by a human-like reaction time.
+ */
+public class AutopilotBot {
+
+    private static final String LOG_TAG = AutopilotBot.class.getSimpleName();
+
+    private static final float RESTART_DELAY = 2f;
+    private static final float DODGE_LEAD_TIME = 0.1f;
+    private static final float RUNNER_MASS = Constants.RUNNER_DENSITY * Constants.RUNNER_WIDTH *
+            Constants.RUNNER_HEIGHT;
+    private static final float RUNNER_LEFT = Constants.RUNNER_X - Constants.RUNNER_WIDTH / 2;
+    private static final float RUNNER_RIGHT = Constants.RUNNER_X + Constants.RUNNER_WIDTH / 2;
+
+    private final StateMachine<AutopilotBot, AutopilotState> stateMachine;
+    private final GameRandom random;
+    private final float reactionTime;
+    private final float reactionJitter;
+    private final AutopilotListener listener;
+
+    private GameSimulation simulation;
+    private GameSimulation reportedSimulation;
+    private boolean newRunRequested;
+
+    private EnemyUserData threat;
+    private float threatLeft;
+    private float threatRight;
+    private float threatSpeed;
+    private float delta;
+    private float timer;
+    private int runs;
+    private int maxDifficultyLevel;
+
+    public AutopilotBot(GameRandom random, float reactionTime, float reactionJitter,
+                        AutopilotListener listener) {
+        this.random = random;
+        this.reactionTime = reactionTime;
+        this.reactionJitter = reactionJitter;
+        this.listener = listener;
+        stateMachine = new DefaultStateMachine<AutopilotBot, AutopilotState>(this, AutopilotState.WATCHING);
+    }
+
+    /**
+     * Plays one frame of the given simulation, which may be a different one every run
+     */
+    public void update(GameSimulation simulation, float delta) {
+        this.simulation = simulation;
+        this.delta = delta;
+        if (simulation.isRunning()) {
+            newRunRequested = false;
+            maxDifficultyLevel = Math.max(maxDifficultyLevel, simulation.getDifficulty().getLevel());
+            // The run may have been started by someone else
+            if (stateMachine.isInState(AutopilotState.GAME_OVER)) {
+                stateMachine.changeState(AutopilotState.WATCHING);
+            }
+        } else if (newRunRequested) {
+            // A simulation thread keeps handing over the finished run until the new one is set up
+            return;
+        } else if (!stateMachine.isInState(AutopilotState.GAME_OVER)) {
+            stateMachine.changeState(AutopilotState.GAME_OVER);
+        }
+        stateMachine.update();
+    }
+
+    StateMachine<AutopilotBot, AutopilotState> getStateMachine() {
+        return stateMachine;
+    }
+
+    GameSimulation getSimulation() {
+        return simulation;
+    }
+
+    float getReactionTime() {
+        return reactionTime;
+    }
+
+    /**
+     * Picks the closest enemy that hasn't gone past the runner yet
+     *
+     * @return true if there's one
+     */
+    boolean findThreat() {
+        threat = null;
+        Array<Body> enemies = simulation.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Body body = enemies.get(i);
+            EnemyUserData userData = (EnemyUserData) body.getUserData();
+            float right = body.getPosition().x + userData.getWidth() / 2;
+            if (right > RUNNER_LEFT && (threat == null || right < threatRight)) {
+                threat = userData;
+                threatRight = right;
+                threatLeft = body.getPosition().x - userData.getWidth() / 2;
+                threatSpeed = -userData.getLinearVelocity().x;
+            }
+        }
+        return threat != null;
+    }
+
+    /**
+     * @return seconds until the current threat touches the runner
+     */
+    float getTimeToImpact() {
+        return threatSpeed <= 0 ? Float.MAX_VALUE : Math.max(0, threatLeft - RUNNER_RIGHT) / threatSpeed;
+    }
+
+    /**
+     * @return how long before impact the action should happen. Jumps are centered so the runner
+     * is at the top of its arc halfway through the overlap with the enemy.
+     */
+    float getActionLeadTime() {
+        if (isThreatFlying()) {
+            return DODGE_LEAD_TIME;
+        }
+        Difficulty difficulty = simulation.getDifficulty();
+        float jumpSpeed = difficulty.getRunnerJumpingLinearImpulse().y / RUNNER_MASS;
+        float airTime = 2 * jumpSpeed / (-Constants.WORLD_GRAVITY.y * difficulty.getRunnerGravityScale());
+        float overlapTime = (Constants.RUNNER_WIDTH + threat.getWidth()) / threatSpeed;
+        return Math.max(0, (airTime - overlapTime) / 2);
+    }
+
+    boolean isThreatFlying() {
+        EnemyType enemyType = threat.getEnemyType();
+        return enemyType == EnemyType.FLYING_SMALL || enemyType == EnemyType.FLYING_WIDE;
+    }
+
+    /**
+     * @return true once the current threat is behind the runner or gone
+     */
+    boolean isThreatPassed() {
+        EnemyUserData previous = threat;
+        return !findThreat() || threat != previous;
+    }
+
+    void startReactionTimer() {
+        timer = reactionTime + reactionJitter * (2 * random.nextFloat() - 1);
+    }
+
+    /**
+     * @return true once the running timer expires
+     */
+    boolean updateTimer() {
+        timer -= delta;
+        return timer <= 0;
+    }
+
+    void onRunOver() {
+        timer = RESTART_DELAY;
+        // Nothing to report when the game has only just launched
+        if (!simulation.isOver() || simulation == reportedSimulation) {
+            return;
+        }
+        reportedSimulation = simulation;
+        runs++;
+        Gdx.app.log(LOG_TAG, "Run " + runs + " over at difficulty " + maxDifficultyLevel +
+                ", score " + simulation.getScore() +
+                ", jumps " + simulation.getRunnerUserData().getJumpCount() +
+                ", java heap " + Gdx.app.getJavaHeap() / 1024 + "KB" +
+                ", native heap " + Gdx.app.getNativeHeap() / 1024 + "KB" +
+                ", fps " + Gdx.graphics.getFramesPerSecond());
+    }
+
+    void startNewRun() {
+        maxDifficultyLevel = 0;
+        newRunRequested = true;
+        listener.onNewRunRequested();
+    }
+
+    /**
+     * Whoever owns the simulation starts a new run when asked to
+     */
+    public interface AutopilotListener {
+        public void onNewRunRequested();
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gamestudio24.martianrun.ai;
+
+import com.badlogic.gdx.ai.fsm.State;
+import com.badlogic.gdx.ai.msg.Telegram;
+
+/**
+ * The autopilot's states. Each one only looks at the bot's current threat and timers, the bot
+ * itself does the world queries.
+ */
+public enum AutopilotState implements State<AutopilotBot> {
+
+    /**
+     * Waits until the next enemy is close enough to start reacting to it
+     */
+    WATCHING() {
+        @Override
+        public void update(AutopilotBot bot) {
+            if (bot.findThreat() && bot.getTimeToImpact() <= bot.getActionLeadTime() + bot.getReactionTime()) {
+                bot.getStateMachine().changeState(REACTING);
+            }
+        }
+    },
+
+    /**
+     * Models the delay between seeing an enemy and the finger hitting the screen
+     */
+    REACTING() {
+        @Override
+        public void enter(AutopilotBot bot) {
+            bot.startReactionTimer();
+        }
+
+        @Override
+        public void update(AutopilotBot bot) {
+            if (!bot.updateTimer()) {
+                return;
+            }
+            if (bot.isThreatFlying()) {
+                bot.getSimulation().dodge();
+                bot.getStateMachine().changeState(DODGING);
+            } else {
+                bot.getSimulation().jump();
+                bot.getStateMachine().changeState(JUMPING);
+            }
+        }
+    },
+
+    JUMPING() {
+        @Override
+        public void update(AutopilotBot bot) {
+            if (!bot.getSimulation().getRunnerUserData().isJumping() && bot.isThreatPassed()) {
+                bot.getStateMachine().changeState(WATCHING);
+            }
+        }
+    },
+
+    DODGING() {
+        @Override
+        public void update(AutopilotBot bot) {
+            if (bot.isThreatPassed()) {
+                bot.getStateMachine().changeState(WATCHING);
+            }
+        }
+
+        @Override
+        public void exit(AutopilotBot bot) {
+            bot.getSimulation().stopDodge();
+        }
+    },
+
+    /**
+     * Starts a new run after a short pause so soak sessions keep going on their own
+     */
+    GAME_OVER() {
+        @Override
+        public void enter(AutopilotBot bot) {
+            bot.onRunOver();
+        }
+
+        @Override
+        public void update(AutopilotBot bot) {
+            if (bot.updateTimer()) {
+                bot.startNewRun();
+                bot.getStateMachine().changeState(WATCHING);
+            }
+        }
+    };
+
+    @Override
+    public void enter(AutopilotBot bot) {
+
+    }
+
+    @Override
+    public void exit(AutopilotBot bot) {
+
+    }
+
+    @Override
+    public boolean onMessage(AutopilotBot bot, Telegram telegram) {
+        return false;
+    }
+
+}
@@ -17,19 +17,20 @@
 package com.gamestudio24.martianrun.box2d;
 
 import com.badlogic.gdx.math.Vector2;
+import com.gamestudio24.martianrun.enums.EnemyType;
 import com.gamestudio24.martianrun.enums.UserDataType;
 import com.gamestudio24.martianrun.utils.Constants;
 
 public class EnemyUserData extends UserData {
 
     private Vector2 linearVelocity;
-    private String animationAssetId;
+    private EnemyType enemyType;
 
-    public EnemyUserData(float width, float height, String animationAssetId) {
-        super(width, height);
+    public EnemyUserData(EnemyType enemyType) {
+        super(enemyType.getWidth(), enemyType.getHeight());
         userDataType = UserDataType.ENEMY;
         linearVelocity = Constants.ENEMY_LINEAR_VELOCITY;
-        this.animationAssetId = animationAssetId;
+        this.enemyType = enemyType;
     }
 
     public void setLinearVelocity(Vector2 linearVelocity) {
@@ -40,15 +41,15 @@ public class EnemyUserData extends UserData {
         return linearVelocity;
     }
 
-    public String getAnimationAssetId() {
-        return animationAssetId;
+    public EnemyType getEnemyType() {
+        return enemyType;
     }
 
     @Override
     public String toString() {
         return "EnemyUserData{" +
                 "linearVelocity=" + linearVelocity +
-                ", animationAssetId='" + animationAssetId + '\'' +
+                ", enemyType=" + enemyType +
                 '}';
     }
 }
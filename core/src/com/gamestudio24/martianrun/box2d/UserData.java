@@ -23,6 +23,7 @@ public abstract class UserData {
     protected UserDataType userDataType;
     protected float width;
     protected float height;
+    protected int id;
 
     public UserData() {
 
@@ -37,6 +38,18 @@ public abstract class UserData {
         return userDataType;
     }
 
+    /**
+     * @return a number unique among the bodies of one simulation, bodies themselves are reused
+     * by Box2D once destroyed
+     */
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public float getWidth() {
         return width;
     }
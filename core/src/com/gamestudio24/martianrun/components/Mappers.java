@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.components;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * Shared component mappers, a mapper retrieves components by index instead of by class
+ */
+public class Mappers {
+
+    public static final ComponentMapper<BodyComponent> body =
+            ComponentMapper.getFor(BodyComponent.class);
+    public static final ComponentMapper<TransformComponent> transform =
+            ComponentMapper.getFor(TransformComponent.class);
+    public static final ComponentMapper<TextureComponent> texture =
+            ComponentMapper.getFor(TextureComponent.class);
+    public static final ComponentMapper<AnimationComponent> animation =
+            ComponentMapper.getFor(AnimationComponent.class);
+    public static final ComponentMapper<RunnerComponent> runner =
+            ComponentMapper.getFor(RunnerComponent.class);
+    public static final ComponentMapper<ScrollComponent> scroll =
+            ComponentMapper.getFor(ScrollComponent.class);
+    public static final ComponentMapper<GhostComponent> ghost =
+            ComponentMapper.getFor(GhostComponent.class);
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+
+/**
+ * The runner's poses other than running. What he's doing is decided by
+ * {@link com.gamestudio24.martianrun.simulation.GameSimulation} and kept in his
+ * {@link RunnerUserData}, or copied into the flags below from the published render state when the
+ * simulation runs on its own thread.
+ */
+public class RunnerComponent implements Component {
+
+    public RunnerUserData userData;
+    public boolean jumping;
+    public boolean dodging;
+    public boolean hit;
+    public TextureRegion jumpingTexture;
+    public TextureRegion dodgingTexture;
+    public TextureRegion hitTexture;
+
+}
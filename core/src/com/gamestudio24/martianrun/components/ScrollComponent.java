@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.components;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Moves an entity left while running and wraps it around once it's fully off screen, so tiles
+ * side by side scroll forever
+ */
+public class ScrollComponent implements Component {
+
+    /** Pixels per second */
+    public float speed;
+    /** How far right a tile jumps after leaving on the left, the width of all its tiles */
+    public float wrapWidth;
+
+}
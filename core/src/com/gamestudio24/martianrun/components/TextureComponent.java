@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * What to draw over an entity's {@link TransformComponent} bounds. Sprites are a little larger
+ * than the bodies they're drawn for, so the region can be padded and scaled.
+ */
+public class TextureComponent implements Component {
+
+    public static final int LAYER_BACKGROUND = 0;
+    public static final int LAYER_GROUND = 1;
+    public static final int LAYER_CHARACTERS = 2;
+
+    public TextureRegion region;
+    /** Lower layers are drawn first, entities on the same layer in the order they were added */
+    public int layer;
+    /** Fraction of the width added on both sides */
+    public float widthPadding;
+    /** Fraction of the height the region starts above the bottom */
+    public float yOffset;
+    /** Fraction of the height the region covers */
+    public float heightScale = 1f;
+    /** Multiplies the batch color's alpha, which changes no draw call */
+    public float alpha = 1f;
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Where an entity is on screen, in pixels
+ */
+public class TransformComponent implements Component {
+
+    public final Rectangle bounds = new Rectangle();
+    /** Degrees counterclockwise around the center */
+    public float rotation;
+    /** False while culled, see {@link com.gamestudio24.martianrun.systems.CullingSystem} */
+    public boolean visible = true;
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+import com.gamestudio24.martianrun.utils.Constants;
+
+public enum AnimationAsset {
+
+    RUNNER_RUNNING(Constants.RUNNER_RUNNING_ASSETS_ID, Constants.RUNNER_RUNNING_REGION_NAMES),
+    RUNNING_SMALL_ENEMY(Constants.RUNNING_SMALL_ENEMY_ASSETS_ID,
+            Constants.RUNNING_SMALL_ENEMY_REGION_NAMES),
+    RUNNING_WIDE_ENEMY(Constants.RUNNING_WIDE_ENEMY_ASSETS_ID,
+            Constants.RUNNING_WIDE_ENEMY_REGION_NAMES),
+    RUNNING_LONG_ENEMY(Constants.RUNNING_LONG_ENEMY_ASSETS_ID,
+            Constants.RUNNING_LONG_ENEMY_REGION_NAMES),
+    RUNNING_BIG_ENEMY(Constants.RUNNING_BIG_ENEMY_ASSETS_ID,
+            Constants.RUNNING_BIG_ENEMY_REGION_NAMES),
+    FLYING_SMALL_ENEMY(Constants.FLYING_SMALL_ENEMY_ASSETS_ID,
+            Constants.FLYING_SMALL_ENEMY_REGION_NAMES),
+    FLYING_WIDE_ENEMY(Constants.FLYING_WIDE_ENEMY_ASSETS_ID,
+            Constants.FLYING_WIDE_ENEMY_REGION_NAMES);
+
+    private String id;
+    private String[] regionNames;
+
+    /**
+     * @param regionNames frames in the sprites atlas, all animations belong to
+     *                    {@link AssetGroup#GAME}
+     */
+    AnimationAsset(String id, String[] regionNames) {
+        this.id = id;
+        this.regionNames = regionNames;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String[] getRegionNames() {
+        return regionNames;
+    }
+
+    public AssetGroup getGroup() {
+        return AssetGroup.GAME;
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+/**
+ * Assets loaded and unloaded together, see
+ * {@link com.gamestudio24.martianrun.utils.AssetsManager#acquire(AssetGroup)}
+ */
+public enum AssetGroup {
+
+    /** Everything the game and its menus need, including the sprite atlas */
+    GAME,
+    /** Only needed while the tutorial shows, once per launch */
+    TUTORIAL
+
+}
@@ -21,32 +21,35 @@ import com.gamestudio24.martianrun.utils.Constants;
 public enum EnemyType {
 
     RUNNING_SMALL(1f, 1f, Constants.ENEMY_X, Constants.RUNNING_SHORT_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.RUNNING_SMALL_ENEMY_ASSETS_ID),
+            AnimationAsset.RUNNING_SMALL_ENEMY, 1f),
     RUNNING_WIDE(2f, 1f, Constants.ENEMY_X, Constants.RUNNING_SHORT_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.RUNNING_WIDE_ENEMY_ASSETS_ID),
+            AnimationAsset.RUNNING_WIDE_ENEMY, 1f),
     RUNNING_LONG(1f, 2f, Constants.ENEMY_X, Constants.RUNNING_LONG_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.RUNNING_LONG_ENEMY_ASSETS_ID),
+            AnimationAsset.RUNNING_LONG_ENEMY, 1f),
     RUNNING_BIG(2f, 2f, Constants.ENEMY_X, Constants.RUNNING_LONG_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.RUNNING_BIG_ENEMY_ASSETS_ID),
+            AnimationAsset.RUNNING_BIG_ENEMY, 1f),
     FLYING_SMALL(1f, 1f, Constants.ENEMY_X, Constants.FLYING_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.FLYING_SMALL_ENEMY_ASSETS_ID),
+            AnimationAsset.FLYING_SMALL_ENEMY, 1f),
     FLYING_WIDE(2f, 1f, Constants.ENEMY_X, Constants.FLYING_ENEMY_Y, Constants.ENEMY_DENSITY,
-            Constants.FLYING_WIDE_ENEMY_ASSETS_ID);
+            AnimationAsset.FLYING_WIDE_ENEMY, 1f);
 
     private float width;
     private float height;
     private float x;
     private float y;
     private float density;
-    private String animationAssetsId;
+    private AnimationAsset animationAsset;
+    private float spawnWeight;
 
-    EnemyType(float width, float height, float x, float y, float density, String animationAssetsId) {
+    EnemyType(float width, float height, float x, float y, float density, AnimationAsset animationAsset,
+              float spawnWeight) {
         this.width = width;
         this.height = height;
         this.x = x;
         this.y = y;
         this.density = density;
-        this.animationAssetsId = animationAssetsId;
+        this.animationAsset = animationAsset;
+        this.spawnWeight = spawnWeight;
     }
 
     public float getWidth() {
@@ -69,7 +72,14 @@ public enum EnemyType {
         return density;
     }
 
-    public String getAnimationAssetId() {
-        return animationAssetsId;
+    public AnimationAsset getAnimationAsset() {
+        return animationAsset;
+    }
+
+    /**
+     * @return how likely this type is to spawn relative to the others
+     */
+    public float getSpawnWeight() {
+        return spawnWeight;
     }
 }
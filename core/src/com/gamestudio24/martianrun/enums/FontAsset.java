@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+import com.gamestudio24.martianrun.utils.Constants;
+
+public enum FontAsset {
+
+    SMALL(36, AssetGroup.GAME),
+    LARGE(72, AssetGroup.GAME),
+    SMALLEST(24, AssetGroup.TUTORIAL);
+
+    private int size;
+    private String fileName;
+    private AssetGroup group;
+
+    FontAsset(int size, AssetGroup group) {
+        this.size = size;
+        this.fileName = Constants.FONT_NAME.substring(0, Constants.FONT_NAME.lastIndexOf('.')) +
+                "_" + size + ".fnt";
+        this.group = group;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the bitmap font the asset pipeline bakes from {@link Constants#FONT_NAME}
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    public AssetGroup getGroup() {
+        return group;
+    }
+
+}
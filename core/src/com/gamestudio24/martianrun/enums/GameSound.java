@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+import com.gamestudio24.martianrun.utils.Constants;
+
+public enum GameSound {
+
+    JUMP(Constants.RUNNER_JUMPING_SOUND, 0.26f, 0.1f),
+    HIT(Constants.RUNNER_HIT_SOUND, 0.27f, 0.25f);
+
+    private String fileName;
+    private float duration;
+    private float cooldown;
+
+    /**
+     * @param duration length of the clip in seconds, used to know when its voice is free again
+     * @param cooldown minimum seconds between two plays, closer requests are dropped
+     */
+    GameSound(String fileName, float duration, float cooldown) {
+        this.fileName = fileName;
+        this.duration = duration;
+        this.cooldown = cooldown;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public float getDuration() {
+        return duration;
+    }
+
+    public float getCooldown() {
+        return cooldown;
+    }
+
+}
@@ -21,6 +21,20 @@ public enum GameState {
     RUNNING,
     PAUSED,
     OVER,
-    ABOUT
+    ABOUT;
+
+    public boolean canChangeTo(GameState gameState) {
+        switch (this) {
+            case RUNNING:
+                return gameState == PAUSED || gameState == OVER;
+            case PAUSED:
+                return gameState == RUNNING || gameState == OVER;
+            case OVER:
+                return gameState == RUNNING || gameState == PAUSED || gameState == ABOUT;
+            case ABOUT:
+                return gameState == OVER || gameState == RUNNING;
+        }
+        return false;
+    }
 
 }
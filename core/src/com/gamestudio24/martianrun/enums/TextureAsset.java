@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+import com.gamestudio24.martianrun.utils.Constants;
+
+public enum TextureAsset {
+
+    BACKGROUND(Constants.BACKGROUND_ASSETS_ID, Constants.BACKGROUND_IMAGE_PATH,
+            Constants.BACKGROUND_ETC1_PATH, null, AssetGroup.GAME),
+    GROUND(Constants.GROUND_ASSETS_ID, Constants.GROUND_IMAGE_PATH, Constants.GROUND_ETC1_PATH,
+            null, AssetGroup.GAME),
+    RUNNER_JUMPING(Constants.RUNNER_JUMPING_ASSETS_ID, null, null,
+            Constants.RUNNER_JUMPING_REGION_NAME, AssetGroup.GAME),
+    RUNNER_DODGING(Constants.RUNNER_DODGING_ASSETS_ID, null, null,
+            Constants.RUNNER_DODGING_REGION_NAME, AssetGroup.GAME),
+    RUNNER_HIT(Constants.RUNNER_HIT_ASSETS_ID, null, null, Constants.RUNNER_HIT_REGION_NAME,
+            AssetGroup.GAME),
+    TUTORIAL_LEFT(Constants.TUTORIAL_LEFT_REGION_NAME, null, null,
+            Constants.TUTORIAL_LEFT_REGION_NAME, AssetGroup.TUTORIAL),
+    TUTORIAL_RIGHT(Constants.TUTORIAL_RIGHT_REGION_NAME, null, null,
+            Constants.TUTORIAL_RIGHT_REGION_NAME, AssetGroup.TUTORIAL);
+
+    private String id;
+    private String fileName;
+    private String etc1FileName;
+    private String regionName;
+    private AssetGroup group;
+
+    /**
+     * @param fileName     image loaded into a texture of its own, or null
+     * @param etc1FileName ETC1 variant of an opaque image, or null if it has alpha
+     * @param regionName   region of the sprites atlas, used if there's no file name
+     */
+    TextureAsset(String id, String fileName, String etc1FileName, String regionName,
+                 AssetGroup group) {
+        this.id = id;
+        this.fileName = fileName;
+        this.etc1FileName = etc1FileName;
+        this.regionName = regionName;
+        this.group = group;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getEtc1FileName() {
+        return etc1FileName;
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public AssetGroup getGroup() {
+        return group;
+    }
+
+}
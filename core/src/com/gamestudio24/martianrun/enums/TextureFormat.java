@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.enums;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+/**
+ * Formats textures can be uploaded in, from the source 32 bits down to compressed ETC1.
+ */
+public enum TextureFormat {
+
+    RGBA8888(Pixmap.Format.RGBA8888, 4f, true),
+    RGBA4444(Pixmap.Format.RGBA4444, 2f, true),
+    RGB565(Pixmap.Format.RGB565, 2f, false),
+    /** Block compressed, read from the .etc1 variants the asset pipeline encodes */
+    ETC1(null, 0.5f, false);
+
+    private Pixmap.Format pixmapFormat;
+    private float bytesPerPixel;
+    private boolean alpha;
+
+    TextureFormat(Pixmap.Format pixmapFormat, float bytesPerPixel, boolean alpha) {
+        this.pixmapFormat = pixmapFormat;
+        this.bytesPerPixel = bytesPerPixel;
+        this.alpha = alpha;
+    }
+
+    /**
+     * @return format the image is converted to before uploading, null if it isn't decoded from a
+     * {@link Pixmap}
+     */
+    public Pixmap.Format getPixmapFormat() {
+        return pixmapFormat;
+    }
+
+    public float getBytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    public boolean hasAlpha() {
+        return alpha;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.input;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.controllers.mappings.Xbox;
+
+/**
+ * Which keys and gamepad buttons trigger jump, dodge and pause. Gamepad buttons follow the
+ * {@link Xbox} layout, which most desktop controllers mimic. The defaults suit both hands on a
+ * keyboard and a standard gamepad.
+ */
+public class ControlBindings {
+
+    private int[] jumpKeys = {Input.Keys.SPACE, Input.Keys.UP, Input.Keys.W};
+    private int[] dodgeKeys = {Input.Keys.DOWN, Input.Keys.S, Input.Keys.SHIFT_LEFT};
+    private int[] pauseKeys = {Input.Keys.P, Input.Keys.ESCAPE};
+    private int[] jumpButtons = {Xbox.A, Xbox.DPAD_UP};
+    private int[] dodgeButtons = {Xbox.B, Xbox.DPAD_DOWN};
+    private int[] pauseButtons = {Xbox.START};
+    private int dodgeAxis = Xbox.L_STICK_VERTICAL_AXIS;
+    private float dodgeAxisThreshold = 0.5f;
+
+    public int[] getJumpKeys() {
+        return jumpKeys;
+    }
+
+    public void setJumpKeys(int... jumpKeys) {
+        this.jumpKeys = jumpKeys;
+    }
+
+    public int[] getDodgeKeys() {
+        return dodgeKeys;
+    }
+
+    public void setDodgeKeys(int... dodgeKeys) {
+        this.dodgeKeys = dodgeKeys;
+    }
+
+    public int[] getPauseKeys() {
+        return pauseKeys;
+    }
+
+    public void setPauseKeys(int... pauseKeys) {
+        this.pauseKeys = pauseKeys;
+    }
+
+    public int[] getJumpButtons() {
+        return jumpButtons;
+    }
+
+    public void setJumpButtons(int... jumpButtons) {
+        this.jumpButtons = jumpButtons;
+    }
+
+    public int[] getDodgeButtons() {
+        return dodgeButtons;
+    }
+
+    public void setDodgeButtons(int... dodgeButtons) {
+        this.dodgeButtons = dodgeButtons;
+    }
+
+    public int[] getPauseButtons() {
+        return pauseButtons;
+    }
+
+    public void setPauseButtons(int... pauseButtons) {
+        this.pauseButtons = pauseButtons;
+    }
+
+    /**
+     * @return the stick axis that dodges when pushed down past {@link #getDodgeAxisThreshold()}
+     */
+    public int getDodgeAxis() {
+        return dodgeAxis;
+    }
+
+    public void setDodgeAxis(int dodgeAxis) {
+        this.dodgeAxis = dodgeAxis;
+    }
+
+    public float getDodgeAxisThreshold() {
+        return dodgeAxisThreshold;
+    }
+
+    public void setDodgeAxisThreshold(float dodgeAxisThreshold) {
+        this.dodgeAxisThreshold = dodgeAxisThreshold;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.Controllers;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.enums.InputAction;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.simulation.InputSink;
+import com.gamestudio24.martianrun.simulation.InputSource;
+
+/**
+ * Keyboard and gamepad controls. Jump and dodge are polled by the simulation at the start of
+ * every step and turned into the same {@link InputAction}s touches produce, pause and start are
+ * polled once per frame by the stage since they work while the simulation is stopped.
+ */
+public class GameControls implements InputSource {
+
+    private final ControlBindings bindings;
+
+    private boolean jumpDown;
+    private boolean dodgeDown;
+    private boolean pauseDown;
+    private boolean startDown;
+
+    public GameControls(ControlBindings bindings) {
+        this.bindings = bindings;
+    }
+
+    @Override
+    public void poll(GameSimulation simulation) {
+        poll((InputSink) simulation);
+    }
+
+    /**
+     * Reports the jump and dodge controls that changed since the last poll
+     */
+    public void poll(InputSink sink) {
+        boolean jump = isJumpPressed();
+        boolean dodge = isDodgePressed();
+
+        if (jump && !jumpDown) {
+            sink.applyInput(InputAction.JUMP);
+        }
+        if (dodge && !dodgeDown) {
+            sink.applyInput(InputAction.DODGE);
+        } else if (!dodge && dodgeDown) {
+            sink.applyInput(InputAction.STOP_DODGE);
+        }
+
+        jumpDown = jump;
+        dodgeDown = dodge;
+    }
+
+    /**
+     * @return true once per press of a pause control
+     */
+    public boolean pollPause() {
+        boolean pause = isAnyKeyPressed(bindings.getPauseKeys()) ||
+                isAnyButtonPressed(bindings.getPauseButtons());
+        boolean pressed = pause && !pauseDown;
+        pauseDown = pause;
+        return pressed;
+    }
+
+    /**
+     * @return true once per press of a jump control, which also starts a new game from the menu
+     */
+    public boolean pollStart() {
+        boolean start = isJumpPressed();
+        boolean pressed = start && !startDown;
+        startDown = start;
+        return pressed;
+    }
+
+    /**
+     * Takes the jump controls as already down, so the press that started a run doesn't also
+     * make it open with a jump
+     */
+    public void consumeJump() {
+        jumpDown = true;
+    }
+
+    private boolean isJumpPressed() {
+        return isAnyKeyPressed(bindings.getJumpKeys()) || isAnyButtonPressed(bindings.getJumpButtons());
+    }
+
+    private boolean isDodgePressed() {
+        if (isAnyKeyPressed(bindings.getDodgeKeys()) || isAnyButtonPressed(bindings.getDodgeButtons())) {
+            return true;
+        }
+        Array<Controller> controllers = Controllers.getControllers();
+        for (int i = 0; i < controllers.size; i++) {
+            if (controllers.get(i).getAxis(bindings.getDodgeAxis()) > bindings.getDodgeAxisThreshold()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnyKeyPressed(int[] keys) {
+        for (int key : keys) {
+            if (Gdx.input.isKeyPressed(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnyButtonPressed(int[] buttons) {
+        Array<Controller> controllers = Controllers.getControllers();
+        for (int i = 0; i < controllers.size; i++) {
+            for (int button : buttons) {
+                // Mappings use -1 for buttons a platform doesn't have
+                if (button >= 0 && controllers.get(i).getButton(button)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.race;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process {@link RaceConnection}, for local testing and load tests: two ends joined by a
+ * {@link MessageQueue} in each direction
+ */
+public class LoopbackConnection implements RaceConnection {
+
+    private final MessageQueue incoming;
+    private final MessageQueue outgoing;
+    private final AtomicBoolean closed;
+
+    private LoopbackConnection(MessageQueue incoming, MessageQueue outgoing, AtomicBoolean closed) {
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+        this.closed = closed;
+    }
+
+    /**
+     * @param capacity messages each direction holds before dropping
+     * @return the client end and the server end
+     */
+    public static LoopbackConnection[] connect(int capacity) {
+        MessageQueue toServer = new MessageQueue(capacity);
+        MessageQueue toClient = new MessageQueue(capacity);
+        AtomicBoolean closed = new AtomicBoolean();
+        return new LoopbackConnection[] {
+                new LoopbackConnection(toClient, toServer, closed),
+                new LoopbackConnection(toServer, toClient, closed)
+        };
+    }
+
+    @Override
+    public boolean send(ByteBuffer message) {
+        return !closed.get() && outgoing.offer(message);
+    }
+
+    /**
+     * Messages sent before the other end closed can still be received
+     */
+    @Override
+    public boolean receive(ByteBuffer buffer) {
+        return incoming.poll(buffer);
+    }
+
+    @Override
+    public void close() {
+        closed.set(true);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+}
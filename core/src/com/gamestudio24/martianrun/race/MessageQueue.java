@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.race;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring of fixed size message slots between exactly one producer thread and one
+ * consumer thread, like {@link com.gamestudio24.martianrun.simulation.EventQueue} but carrying
+ * bytes. Nothing is allocated once the queue exists.
+ */
+public class MessageQueue {
+
+    private final byte[] data;
+    private final int[] lengths;
+    private final int mask;
+
+    // Each counter is only written by its own side, lazySet publishes the slot it guards
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity messages, rounded up to a power of two
+     */
+    public MessageQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        data = new byte[size * RaceProtocol.MAX_MESSAGE_SIZE];
+        lengths = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Producer side
+     *
+     * @return false if the queue is full or the message too long, and it was dropped
+     */
+    public boolean offer(ByteBuffer message) {
+        int length = message.remaining();
+        long position = tail.get();
+        if (length > RaceProtocol.MAX_MESSAGE_SIZE || position - head.get() == lengths.length) {
+            return false;
+        }
+        int index = (int) position & mask;
+        message.get(data, index * RaceProtocol.MAX_MESSAGE_SIZE, length);
+        lengths[index] = length;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side
+     *
+     * @param buffer cleared and filled with the message, ready to be read
+     * @return false if there was nothing to take
+     */
+    public boolean poll(ByteBuffer buffer) {
+        long position = head.get();
+        if (position == tail.get()) {
+            return false;
+        }
+        int index = (int) position & mask;
+        buffer.clear();
+        buffer.put(data, index * RaceProtocol.MAX_MESSAGE_SIZE, lengths[index]);
+        buffer.flip();
+        head.lazySet(position + 1);
+        return true;
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.race;
+
+import com.gamestudio24.martianrun.enums.EnemyType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A racer's view of the server's authoritative state, kept up to date by reading every
+ * {@link RaceProtocol#STATE} and {@link RaceProtocol#STANDINGS} message. Fields a state message
+ * leaves out keep their previous value.
+ */
+public class RaceClientState {
+
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+
+    private int frame;
+    private float runnerX;
+    private float runnerY;
+    private float runnerAngle;
+    private byte runnerFlags;
+    private int score;
+    private int acknowledgedInput;
+    private boolean over;
+    private final EnemyType[] spawns = new EnemyType[RaceProtocol.MAX_SPAWNS];
+    private int spawnCount;
+    private final int[] standings = new int[RaceProtocol.MAX_RACERS];
+    private int racers;
+
+    /**
+     * @return false if it wasn't a message for clients
+     */
+    public boolean read(ByteBuffer message) {
+        switch (message.get()) {
+            case RaceProtocol.STATE:
+                readState(message);
+                return true;
+            case RaceProtocol.STANDINGS:
+                readStandings(message);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void readState(ByteBuffer message) {
+        frame = RaceProtocol.getVarInt(message);
+        int fields = message.get();
+        if ((fields & RaceProtocol.RUNNER_FIELD) != 0) {
+            runnerX = RaceProtocol.dequantizePosition(message.getShort());
+            runnerY = RaceProtocol.dequantizePosition(message.getShort());
+            runnerAngle = RaceProtocol.dequantizeAngle(message.getShort());
+            runnerFlags = message.get();
+        }
+        if ((fields & RaceProtocol.SCORE_FIELD) != 0) {
+            score = RaceProtocol.getVarInt(message);
+        }
+        if ((fields & RaceProtocol.ACK_FIELD) != 0) {
+            acknowledgedInput = RaceProtocol.getVarInt(message);
+        }
+        spawnCount = 0;
+        if ((fields & RaceProtocol.SPAWN_FIELD) != 0) {
+            spawnCount = message.get();
+            for (int i = 0; i < spawnCount; i++) {
+                spawns[i] = ENEMY_TYPES[message.get()];
+            }
+        }
+        over = (fields & RaceProtocol.OVER_FIELD) != 0 || over;
+    }
+
+    private void readStandings(ByteBuffer message) {
+        racers = RaceProtocol.getVarInt(message);
+        for (int i = 0; i < racers; i++) {
+            standings[i] = RaceProtocol.getVarInt(message);
+        }
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public float getRunnerX() {
+        return runnerX;
+    }
+
+    public float getRunnerY() {
+        return runnerY;
+    }
+
+    /**
+     * @return degrees
+     */
+    public float getRunnerAngle() {
+        return runnerAngle;
+    }
+
+    public boolean isRunnerJumping() {
+        return (runnerFlags & RaceProtocol.JUMPING_FLAG) != 0;
+    }
+
+    public boolean isRunnerDodging() {
+        return (runnerFlags & RaceProtocol.DODGING_FLAG) != 0;
+    }
+
+    public boolean isRunnerHit() {
+        return (runnerFlags & RaceProtocol.HIT_FLAG) != 0;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return sequence number of the last input the server applied, later ones are still in
+     * flight
+     */
+    public int getAcknowledgedInput() {
+        return acknowledgedInput;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * @return how many enemies spawned in the frame of the last state message
+     */
+    public int getSpawnCount() {
+        return spawnCount;
+    }
+
+    public EnemyType getSpawn(int index) {
+        return spawns[index];
+    }
+
+    public int getRacerCount() {
+        return racers;
+    }
+
+    public int getRacerScore(int racer) {
+        return standings[racer] >>> 1;
+    }
+
+    public boolean isRacerRunning(int racer) {
+        return (standings[racer] & 1) != 0;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.race;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One end of the link between a racer and the race server. Messages are whole datagrams of at
+ * most {@link RaceProtocol#MAX_MESSAGE_SIZE} bytes, delivered in order or dropped, and neither
+ * side ever blocks. Each end is used by a single thread.
+ */
+public interface RaceConnection {
+
+    /**
+     * @param message sent from its position to its limit
+     * @return false if the message was dropped
+     */
+    public boolean send(ByteBuffer message);
+
+    /**
+     * @param buffer cleared and filled with the next message, ready to be read
+     * @return false if nothing has arrived
+     */
+    public boolean receive(ByteBuffer buffer);
+
+    public void close();
+
+    /**
+     * @return true once either end closed the connection
+     */
+    public boolean isClosed();
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.race;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.gamestudio24.martianrun.enums.InputAction;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The race wire format. Racers send {@link #INPUT} messages: the action and a sequence number the
+ * server acknowledges. Every tick the server answers with a {@link #STATE} message holding only
+ * what changed since the previous one, and regularly with the race's {@link #STANDINGS}:
+ * <pre>
+ * INPUT     type, action ordinal, varint sequence
+ * STATE     type, varint frame, field bits, then for each bit set:
+ *           RUNNER short x, short y (mm), short angle (1/100 degree), flags
+ *           SCORE  varint score
+ *           ACK    varint last applied input sequence
+ *           SPAWN  count, count enemy type ordinals
+ *           OVER   nothing, the runner was hit
+ * STANDINGS type, varint racers, for each racer varint score &lt;&lt; 1 | 1 while running
+ * </pre>
+ * Enemies move at a constant speed from a known spawn point, so spawns are all a client needs to
+ * place them.
+ */
+public class RaceProtocol {
+
+    public static final int MAX_MESSAGE_SIZE = 128;
+    // Standings have to fit in a message: a varint of up to 5 bytes per racer
+    public static final int MAX_RACERS = (MAX_MESSAGE_SIZE - 6) / 5;
+    // Way more than a tick can spawn
+    public static final int MAX_SPAWNS = 16;
+
+    public static final byte INPUT = 1;
+    public static final byte STATE = 2;
+    public static final byte STANDINGS = 3;
+
+    public static final int RUNNER_FIELD = 1;
+    public static final int SCORE_FIELD = 1 << 1;
+    public static final int ACK_FIELD = 1 << 2;
+    public static final int SPAWN_FIELD = 1 << 3;
+    public static final int OVER_FIELD = 1 << 4;
+
+    public static final byte JUMPING_FLAG = 1;
+    public static final byte DODGING_FLAG = 1 << 1;
+    public static final byte HIT_FLAG = 1 << 2;
+
+    private static final float POSITION_SCALE = 1000f;
+    private static final float ANGLE_SCALE = 100f;
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    /**
+     * Replaces the buffer's content with an input message, ready to be sent
+     */
+    public static void writeInput(ByteBuffer buffer, InputAction action, int sequence) {
+        buffer.clear();
+        buffer.put(INPUT);
+        buffer.put((byte) action.ordinal());
+        putVarInt(buffer, sequence);
+        buffer.flip();
+    }
+
+    /**
+     * @param message positioned after the type byte
+     */
+    public static InputAction readInputAction(ByteBuffer message) {
+        return ACTIONS[message.get()];
+    }
+
+    /**
+     * Unsigned LEB128, small values take a single byte
+     */
+    public static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * @param position in world units, within about 32 of the origin
+     */
+    public static short quantizePosition(float position) {
+        return (short) Math.round(position * POSITION_SCALE);
+    }
+
+    public static float dequantizePosition(short position) {
+        return position / POSITION_SCALE;
+    }
+
+    /**
+     * @param angle in radians, any number of turns
+     */
+    public static short quantizeAngle(float angle) {
+        float degrees = angle * MathUtils.radiansToDegrees % 360f;
+        if (degrees > 180f) {
+            degrees -= 360f;
+        } else if (degrees < -180f) {
+            degrees += 360f;
+        }
+        return (short) Math.round(degrees * ANGLE_SCALE);
+    }
+
+    /**
+     * @return degrees in [-180, 180]
+     */
+    public static float dequantizeAngle(short angle) {
+        return angle / ANGLE_SCALE;
+    }
+
+}
@@ -20,28 +20,34 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.gamestudio24.martianrun.stages.GameStage;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
 
 public class GameScreen implements Screen {
 
     private GameStage stage;
+    private RenderScheduler renderScheduler;
 
     public GameScreen() {
         stage = new GameStage();
+        renderScheduler = new RenderScheduler();
     }
 
     @Override
     public void render(float delta) {
+        Telemetry.getInstance().recordFrame(delta);
+
         //Clear the screen
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         //Update the stage
         stage.draw();
-        stage.act(delta);
+        stage.act(renderScheduler.getFrameDelta(delta));
+        renderScheduler.update(stage.isAnimating());
     }
 
     @Override
     public void resize(int width, int height) {
-
+        stage.resize(width, height);
     }
 
     @Override
@@ -56,17 +62,18 @@ public class GameScreen implements Screen {
 
     @Override
     public void pause() {
-
+        stage.pause();
     }
 
     @Override
     public void resume() {
-
+        stage.resume();
     }
 
     @Override
     public void dispose() {
-
+        renderScheduler.dispose();
+        stage.dispose();
     }
 
 }
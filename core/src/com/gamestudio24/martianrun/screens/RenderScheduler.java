@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.controllers.Controllers;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Timer;
+import com.gamestudio24.martianrun.enums.GameState;
+import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameStateListener;
+
+/**
+ * Stops continuous rendering while nothing on screen moves, e.g. on the menus or while paused.
+ * The backends still render a frame for every touch, mouse or key event, and a gamepad, which
+ * has to be polled, gets a few frames per second. Full rate comes back as soon as a run starts
+ * or the scene moves again.
+ */
+public class RenderScheduler implements GameStateListener, Disposable {
+
+    private static final float IDLE_POLL_INTERVAL = 0.1f;
+    private static final float MAX_IDLE_DELTA = 1 / 60f;
+
+    private boolean idle;
+    private boolean waking;
+    private final Timer.Task pollTask;
+
+    public RenderScheduler() {
+        pollTask = new Timer.Task() {
+            @Override
+            public void run() {
+                Gdx.graphics.requestRendering();
+            }
+        };
+        GameManager.getInstance().addGameStateListener(this);
+    }
+
+    @Override
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        // Other states wait for the scene to settle in update()
+        if (gameState == GameState.RUNNING) {
+            wake();
+        }
+    }
+
+    /**
+     * @return the delta to act with: after idling the time since the last frame can be seconds,
+     * which a static scene doesn't need and a run that just started must not simulate
+     */
+    public float getFrameDelta(float delta) {
+        if (idle || waking) {
+            waking = false;
+            return Math.min(delta, MAX_IDLE_DELTA);
+        }
+        return delta;
+    }
+
+    /**
+     * Call once per frame, after acting
+     *
+     * @param animating true if something on screen moves on its own
+     */
+    public void update(boolean animating) {
+        if (animating || GameManager.getInstance().getGameState() == GameState.RUNNING) {
+            wake();
+        } else {
+            sleep();
+        }
+    }
+
+    private void wake() {
+        if (!idle) {
+            return;
+        }
+        idle = false;
+        waking = true;
+        pollTask.cancel();
+        Gdx.graphics.setContinuousRendering(true);
+    }
+
+    private void sleep() {
+        if (idle) {
+            return;
+        }
+        idle = true;
+        Gdx.graphics.setContinuousRendering(false);
+        if (Controllers.getControllers().size > 0) {
+            Timer.schedule(pollTask, IDLE_POLL_INTERVAL, IDLE_POLL_INTERVAL);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        GameManager.getInstance().removeGameStateListener(this);
+        pollTask.cancel();
+        Gdx.graphics.setContinuousRendering(true);
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gamestudio24.martianrun.ai.AutopilotBot;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.simulation.SimulationListener;
+import com.gamestudio24.martianrun.utils.GameOptions;
+import com.gamestudio24.martianrun.utils.RandomUtils;
+
+/**
+ * Runs back to back {@link GameSimulation}s without drawing anything, for headless backends.
+ * Every frame advances the game by exactly {@link #FRAME_TIME} whatever the wall clock says, so
+ * the same seed always plays out the same way. Without the autopilot the runner never moves and
+ * a new run starts as soon as he's hit.
+ */
+public class SimulationScreen extends ScreenAdapter {
+
+    private static final String LOG_TAG = SimulationScreen.class.getSimpleName();
+
+    public static final float FRAME_TIME = 1 / 60f;
+
+    private final GameOptions options;
+    private final AutopilotBot autopilot;
+    private final long startTime;
+
+    private GameSimulation simulation;
+    private int frames;
+    private long updateTime;
+    private long maxUpdateTime;
+    private int runs;
+    private int enemies;
+    private int jumps;
+    private long totalScore;
+    private int bestScore;
+    private int maxDifficultyLevel;
+
+    public SimulationScreen(GameOptions options) {
+        this.options = options;
+        autopilot = options.isAutopilot() ? new AutopilotBot(RandomUtils.newStream(),
+                options.getReactionTime(), options.getReactionJitter(), new NewRunListener()) : null;
+        startTime = TimeUtils.nanoTime();
+        startNewRun();
+    }
+
+    private void startNewRun() {
+        if (simulation != null) {
+            simulation.dispose();
+        }
+        simulation = new GameSimulation(RandomUtils.getSpawnRandom(), new MetricsListener());
+        simulation.setJumpBufferTime(options.getJumpBufferTime());
+        simulation.setCoyoteTime(options.getCoyoteTime());
+        simulation.start();
+        maxDifficultyLevel = Math.max(maxDifficultyLevel, simulation.getDifficulty().getLevel());
+    }
+
+    @Override
+    public void render(float delta) {
+        long frameStart = TimeUtils.nanoTime();
+
+        if (autopilot != null) {
+            autopilot.update(simulation, FRAME_TIME);
+        } else if (simulation.isOver()) {
+            startNewRun();
+        }
+        simulation.update(FRAME_TIME);
+
+        long frameTime = TimeUtils.nanoTime() - frameStart;
+        updateTime += frameTime;
+        maxUpdateTime = Math.max(maxUpdateTime, frameTime);
+        frames++;
+
+        if (frames == options.getMaxFrames()) {
+            writeMetrics();
+            Gdx.app.exit();
+        }
+    }
+
+    private void writeMetrics() {
+        float wallTime = (TimeUtils.nanoTime() - startTime) / 1e9f;
+        StringBuilder metrics = new StringBuilder();
+        appendMetric(metrics, "seed", RandomUtils.getSeed());
+        appendMetric(metrics, "frames", frames);
+        appendMetric(metrics, "simulated_seconds", frames * FRAME_TIME);
+        appendMetric(metrics, "wall_seconds", wallTime);
+        appendMetric(metrics, "frames_per_second", frames / wallTime);
+        appendMetric(metrics, "mean_update_us", updateTime / 1000f / frames);
+        appendMetric(metrics, "max_update_us", maxUpdateTime / 1000f);
+        appendMetric(metrics, "runs", runs);
+        appendMetric(metrics, "enemies", enemies);
+        appendMetric(metrics, "jumps", jumps);
+        appendMetric(metrics, "mean_score", runs == 0 ? 0 : totalScore / (float) runs);
+        appendMetric(metrics, "best_score", bestScore);
+        appendMetric(metrics, "max_difficulty", maxDifficultyLevel);
+        appendMetric(metrics, "java_heap_kb", Gdx.app.getJavaHeap() / 1024);
+
+        Gdx.app.log(LOG_TAG, "\n" + metrics);
+        if (options.getMetricsFile() != null) {
+            Gdx.files.absolute(options.getMetricsFile()).writeString(metrics.toString(), false);
+        }
+    }
+
+    private static void appendMetric(StringBuilder metrics, String name, Object value) {
+        metrics.append(name).append('=').append(value).append('\n');
+    }
+
+    @Override
+    public void dispose() {
+        simulation.dispose();
+    }
+
+    private class MetricsListener implements SimulationListener {
+
+        @Override
+        public void onEnemySpawned(Body body) {
+            enemies++;
+        }
+
+        @Override
+        public void onJump() {
+            jumps++;
+        }
+
+        @Override
+        public void onDifficultyChange(Difficulty difficulty) {
+            maxDifficultyLevel = Math.max(maxDifficultyLevel, difficulty.getLevel());
+        }
+
+        @Override
+        public void onRunnerHit() {
+            runs++;
+            totalScore += simulation.getScore();
+            bestScore = Math.max(bestScore, simulation.getScore());
+        }
+
+    }
+
+    private class NewRunListener implements AutopilotBot.AutopilotListener {
+
+        @Override
+        public void onNewRunRequested() {
+            startNewRun();
+        }
+
+    }
+
+}
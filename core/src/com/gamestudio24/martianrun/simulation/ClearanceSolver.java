@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.utils.Constants;
+
+/**
+ * Decides in closed form, without stepping Box2D, whether enemies can be cleared. For every
+ * {@link Difficulty} and {@link EnemyType} it precomputes, in seconds after the spawn, when the
+ * enemy overlaps the runner, the window in which a jump clears it (the runner's feet follow
+ * y = v t - g t^2 / 2) and whether dodging or simply running under it works. Checking an enemy
+ * is then a handful of comparisons.
+ * <p/>
+ * Enemies come one at a time, the next one spawning as the previous one leaves the screen, so a
+ * sequence only fails if the runner is still busy, in the air or dodging, when the next enemy
+ * needs an action. Acting as early as possible is always best, which makes the greedy check
+ * exact.
+ */
+public class ClearanceSolver {
+
+    // Box2D polygons touch as soon as their skins do, b2_polygonRadius on each side
+    public static final float CONTACT_MARGIN = 0.02f;
+
+    private static final float RUNNER_MASS = Constants.RUNNER_DENSITY * Constants.RUNNER_WIDTH *
+            Constants.RUNNER_HEIGHT;
+    private static final float RUNNER_LEFT = Constants.RUNNER_X - Constants.RUNNER_WIDTH / 2 -
+            CONTACT_MARGIN;
+    private static final float RUNNER_RIGHT = Constants.RUNNER_X + Constants.RUNNER_WIDTH / 2 +
+            CONTACT_MARGIN;
+    private static final float RUNNER_BOTTOM = Constants.RUNNER_Y - Constants.RUNNER_HEIGHT / 2;
+    private static final float RUNNER_TOP = Constants.RUNNER_Y + Constants.RUNNER_HEIGHT / 2;
+    // Dodging turns the runner on his side
+    private static final float DODGE_TOP = Constants.RUNNER_DODGE_Y + Constants.RUNNER_WIDTH / 2;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+
+    private final float[] gravities;
+    private final float[] airTimes;
+    // Indexed by difficulty and enemy type
+    private final float[] enterTimes;
+    private final float[] exitTimes;
+    private final float[] goneTimes;
+    private final float[] earliestJumps;
+    private final float[] latestJumps;
+    private final boolean[] groundClears;
+
+    public ClearanceSolver() {
+        gravities = new float[DIFFICULTIES.length];
+        airTimes = new float[DIFFICULTIES.length];
+        int count = DIFFICULTIES.length * ENEMY_TYPES.length;
+        enterTimes = new float[count];
+        exitTimes = new float[count];
+        goneTimes = new float[count];
+        earliestJumps = new float[count];
+        latestJumps = new float[count];
+        groundClears = new boolean[count];
+
+        for (Difficulty difficulty : DIFFICULTIES) {
+            float gravity = -Constants.WORLD_GRAVITY.y * difficulty.getRunnerGravityScale();
+            float jumpSpeed = difficulty.getRunnerJumpingLinearImpulse().y / RUNNER_MASS;
+            gravities[difficulty.ordinal()] = gravity;
+            airTimes[difficulty.ordinal()] = 2 * jumpSpeed / gravity;
+
+            float speed = -difficulty.getEnemyLinearVelocity().x;
+            for (EnemyType enemyType : ENEMY_TYPES) {
+                int index = getIndex(difficulty, enemyType);
+                float halfWidth = enemyType.getWidth() / 2;
+                float bottom = enemyType.getY() - enemyType.getHeight() / 2;
+                float top = enemyType.getY() + enemyType.getHeight() / 2;
+
+                enterTimes[index] = (enemyType.getX() - halfWidth - RUNNER_RIGHT) / speed;
+                exitTimes[index] = (enemyType.getX() + halfWidth - RUNNER_LEFT) / speed;
+                goneTimes[index] = (enemyType.getX() + halfWidth) / speed;
+
+                // Runs under it either standing or, like flying enemies, dodging
+                groundClears[index] = bottom - CONTACT_MARGIN >= RUNNER_TOP ||
+                        bottom - CONTACT_MARGIN >= DODGE_TOP;
+
+                // The feet are above the top between the two roots of v t - g t^2 / 2 = rise
+                float rise = top + CONTACT_MARGIN - RUNNER_BOTTOM;
+                float discriminant = jumpSpeed * jumpSpeed - 2 * gravity * rise;
+                earliestJumps[index] = Float.NaN;
+                latestJumps[index] = Float.NaN;
+                if (discriminant >= 0) {
+                    float root = (float) Math.sqrt(discriminant);
+                    float earliest = exitTimes[index] - (jumpSpeed + root) / gravity;
+                    float latest = enterTimes[index] - (jumpSpeed - root) / gravity;
+                    if (earliest <= latest) {
+                        earliestJumps[index] = earliest;
+                        latestJumps[index] = latest;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the enemy can be jumped over at all
+     */
+    public boolean canJump(Difficulty difficulty, EnemyType enemyType) {
+        return !Float.isNaN(earliestJumps[getIndex(difficulty, enemyType)]);
+    }
+
+    /**
+     * @return true if the runner gets under the enemy without leaving the ground
+     */
+    public boolean canDodge(Difficulty difficulty, EnemyType enemyType) {
+        return groundClears[getIndex(difficulty, enemyType)];
+    }
+
+    /**
+     * @param readyTime seconds after the enemy's spawn at which the runner is on the ground and
+     *                  free to act
+     * @return true if the enemy can be cleared from there
+     */
+    public boolean canClear(Difficulty difficulty, EnemyType enemyType, float readyTime) {
+        return !Float.isNaN(clear(difficulty, enemyType, readyTime));
+    }
+
+    /**
+     * Clears the enemy as early as possible
+     *
+     * @param readyTime seconds after the enemy's spawn at which the runner is on the ground and
+     *                  free to act
+     * @return seconds after the enemy's spawn at which the runner is free again, or NaN if it
+     * can't be cleared
+     */
+    public float clear(Difficulty difficulty, EnemyType enemyType, float readyTime) {
+        int index = getIndex(difficulty, enemyType);
+        float freeTime = Float.NaN;
+        // Dodging ends the moment the enemy has gone past
+        if (groundClears[index] && readyTime <= enterTimes[index]) {
+            freeTime = exitTimes[index];
+        }
+        // NaN windows fail the comparison
+        float jumpTime = Math.max(readyTime, earliestJumps[index]);
+        if (jumpTime <= latestJumps[index]) {
+            float landingTime = jumpTime + airTimes[difficulty.ordinal()];
+            if (Float.isNaN(freeTime) || landingTime < freeTime) {
+                freeTime = landingTime;
+            }
+        }
+        return freeTime;
+    }
+
+    /**
+     * @param enemyTypes spawned one after the other, the runner on the ground at the first spawn
+     * @return index of the first enemy that can't be cleared, or -1 if the whole sequence can
+     */
+    public int findUnclearable(Difficulty difficulty, EnemyType[] enemyTypes, int count) {
+        float readyTime = 0;
+        for (int i = 0; i < count; i++) {
+            float freeTime = clear(difficulty, enemyTypes[i], readyTime);
+            if (Float.isNaN(freeTime)) {
+                return i;
+            }
+            // The next one spawns as this one leaves the screen
+            readyTime = Math.max(0, freeTime - goneTimes[getIndex(difficulty, enemyTypes[i])]);
+        }
+        return -1;
+    }
+
+    /**
+     * @param bottom        y of the runner's feet
+     * @param verticalSpeed of the runner, positive going up
+     * @return seconds until a jumping runner is back on the ground
+     */
+    public float getLandingTime(Difficulty difficulty, float bottom, float verticalSpeed) {
+        float gravity = gravities[difficulty.ordinal()];
+        float height = Math.max(0, bottom - RUNNER_BOTTOM);
+        return (verticalSpeed + (float) Math.sqrt(verticalSpeed * verticalSpeed + 2 * gravity * height)) /
+                gravity;
+    }
+
+    private static int getIndex(Difficulty difficulty, EnemyType enemyType) {
+        return difficulty.ordinal() * ENEMY_TYPES.length + enemyType.ordinal();
+    }
+
+}
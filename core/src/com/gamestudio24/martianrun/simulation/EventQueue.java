@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer between exactly one producer thread and one consumer thread. An event
+ * is a type, an int and a timestamp stored in parallel arrays, so nothing is allocated once the
+ * queue exists. Read the polled event through the getters until the next {@link #poll()}.
+ */
+public class EventQueue {
+
+    private final byte[] types;
+    private final int[] values;
+    private final long[] times;
+    private final int mask;
+
+    // Each counter is only written by its own side, lazySet publishes the slot it guards
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private byte type;
+    private int value;
+    private long time;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public EventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        types = new byte[size];
+        values = new int[size];
+        times = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Producer side
+     *
+     * @return false if the queue is full and the event was dropped
+     */
+    public boolean offer(byte type, int value, long time) {
+        long position = tail.get();
+        if (position - head.get() == types.length) {
+            return false;
+        }
+        int index = (int) position & mask;
+        types[index] = type;
+        values[index] = value;
+        times[index] = time;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side
+     *
+     * @return false if there was nothing to take
+     */
+    public boolean poll() {
+        long position = head.get();
+        if (position == tail.get()) {
+            return false;
+        }
+        int index = (int) position & mask;
+        type = types[index];
+        value = values[index];
+        time = times[index];
+        head.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side, drops everything queued so far
+     */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+}
@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.enums.InputAction;
+import com.gamestudio24.martianrun.utils.AliasTable;
+import com.gamestudio24.martianrun.utils.BodyUtils;
+import com.gamestudio24.martianrun.utils.Constants;
+import com.gamestudio24.martianrun.utils.GameRandom;
+import com.gamestudio24.martianrun.utils.RandomUtils;
+import com.gamestudio24.martianrun.utils.WorldUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The rules of a run: the physics world, the runner, enemy spawns, difficulty and score. It
+ * doesn't touch graphics, audio or the {@link com.gamestudio24.martianrun.utils.GameManager}, so
+ * it runs the same behind {@link com.gamestudio24.martianrun.stages.GameStage} as it does on a
+ * headless backend, and several instances can run side by side.
+ */
+public class GameSimulation implements ContactListener, InputSink {
+
+    public static final float TIME_STEP = 1 / 300f;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+    private static final byte JUMPING_FLAG = 1;
+    private static final byte DODGING_FLAG = 1 << 1;
+    private static final int INPUT_CAPACITY = 32;
+    private static final long NO_JUMP_REQUEST = -1;
+    // Bounded so a mix with nothing clearable still spawns
+    private static final int MAX_SPAWN_REJECTIONS = 8;
+    private static final ClearanceSolver CLEARANCE_SOLVER = new ClearanceSolver();
+
+    private final World world;
+    private final Body groundBody;
+    private final Array<Body> enemies;
+    private final Array<Body> bodies;
+    private final GameRandom spawnRandom;
+    private final SimulationListener listener;
+    private final InputBuffer input;
+    private InputSource inputSource;
+
+    private Body runnerBody;
+    private RunnerUserData runnerUserData;
+    private Difficulty difficulty;
+    private boolean difficultyLocked;
+    private AliasTable<EnemyType> enemyTypes;
+    private boolean fairSpawns = true;
+    private int rejectedSpawns;
+    private float totalTimePassed;
+    private float score;
+    private float accumulator;
+    private long stepCount;
+    private int groundContacts;
+    private long lastGroundedStep;
+    private long jumpRequestStep;
+    private int jumpBufferSteps;
+    private int coyoteSteps;
+    private int lastBodyId;
+
+    public GameSimulation(GameRandom spawnRandom, SimulationListener listener) {
+        this.spawnRandom = spawnRandom;
+        this.listener = listener;
+        world = WorldUtils.createWorld();
+        world.setContactListener(this);
+        groundBody = WorldUtils.createGround(world);
+        enemies = new Array<Body>();
+        bodies = new Array<Body>();
+        difficulty = DIFFICULTIES[0];
+        input = new InputBuffer(INPUT_CAPACITY);
+        jumpRequestStep = NO_JUMP_REQUEST;
+        lastGroundedStep = Long.MIN_VALUE / 2;
+        setJumpBufferTime(Constants.RUNNER_JUMP_BUFFER_TIME);
+        setCoyoteTime(Constants.RUNNER_COYOTE_TIME);
+    }
+
+    /**
+     * How long a jump pressed in the air is remembered, so pressing just before landing jumps
+     * as soon as the runner touches the ground
+     */
+    public void setJumpBufferTime(float jumpBufferTime) {
+        jumpBufferSteps = Math.round(jumpBufferTime / TIME_STEP);
+    }
+
+    /**
+     * How long after leaving the ground without jumping the runner can still jump
+     */
+    public void setCoyoteTime(float coyoteTime) {
+        coyoteSteps = Math.round(coyoteTime / TIME_STEP);
+    }
+
+    /**
+     * Plays the whole run at the given difficulty, for balancing tools. Only before the runner
+     * is created.
+     */
+    public void lockDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+        difficultyLocked = true;
+    }
+
+    /**
+     * @param enemyTypes what to spawn from instead of the usual
+     *                   {@link EnemyType#getSpawnWeight()} mix, null for the usual one
+     */
+    public void setEnemyTypes(AliasTable<EnemyType> enemyTypes) {
+        this.enemyTypes = enemyTypes;
+    }
+
+    /**
+     * @param fairSpawns true to redraw enemies {@link ClearanceSolver} says the runner can't
+     *                   clear, the default
+     */
+    public void setFairSpawns(boolean fairSpawns) {
+        this.fairSpawns = fairSpawns;
+    }
+
+    /**
+     * @return how many drawn enemies were unclearable and drawn again
+     */
+    public int getRejectedSpawns() {
+        return rejectedSpawns;
+    }
+
+    /**
+     * Starts a run: creates the runner and spawns the first enemy
+     */
+    public void start() {
+        createRunner();
+        spawnEnemy();
+    }
+
+    public void createRunner() {
+        runnerBody = WorldUtils.createRunner(world);
+        runnerUserData = (RunnerUserData) runnerBody.getUserData();
+        runnerUserData.setId(++lastBodyId);
+        applyDifficulty();
+    }
+
+    public void spawnEnemy() {
+        EnemyType enemyType = sampleEnemyType();
+        if (fairSpawns) {
+            float readyTime = getRunnerReadyTime();
+            for (int i = 0; i < MAX_SPAWN_REJECTIONS &&
+                    !CLEARANCE_SOLVER.canClear(difficulty, enemyType, readyTime); i++) {
+                rejectedSpawns++;
+                enemyType = sampleEnemyType();
+            }
+        }
+        Body body = WorldUtils.createEnemy(world, enemyType);
+        EnemyUserData userData = (EnemyUserData) body.getUserData();
+        userData.setLinearVelocity(difficulty.getEnemyLinearVelocity());
+        addEnemy(body);
+    }
+
+    private EnemyType sampleEnemyType() {
+        return enemyTypes != null ? enemyTypes.sample(spawnRandom)
+                : RandomUtils.getRandomEnemyType(spawnRandom);
+    }
+
+    /**
+     * @return seconds until the runner is on the ground and free to act, dodging ends at will
+     */
+    private float getRunnerReadyTime() {
+        if (runnerBody == null || !runnerUserData.isJumping()) {
+            return 0;
+        }
+        return CLEARANCE_SOLVER.getLandingTime(difficulty,
+                runnerBody.getPosition().y - runnerUserData.getHeight() / 2,
+                runnerBody.getLinearVelocity().y);
+    }
+
+    private void addEnemy(Body body) {
+        EnemyUserData userData = (EnemyUserData) body.getUserData();
+        userData.setId(++lastBodyId);
+        // Kinematic bodies keep their velocity, so setting it once is enough
+        body.setLinearVelocity(userData.getLinearVelocity());
+        enemies.add(body);
+        listener.onEnemySpawned(body);
+    }
+
+    /**
+     * Advances the simulation by delta seconds of game time, in fixed {@link #TIME_STEP} steps.
+     * The world keeps moving once the run is over, only the clock, score and difficulty stop.
+     */
+    public void update(float delta) {
+        if (isRunning()) {
+            totalTimePassed += delta;
+            score += difficulty.getScoreMultiplier() * delta;
+            updateDifficulty();
+        }
+
+        world.getBodies(bodies);
+        for (int i = 0; i < bodies.size; i++) {
+            update(bodies.get(i));
+        }
+
+        // Fixed timestep
+        accumulator += delta;
+
+        int steps = 0;
+        while (accumulator >= TIME_STEP) {
+            accumulator -= TIME_STEP;
+            steps++;
+        }
+
+        for (int i = 0; i < steps; i++) {
+            if (inputSource != null) {
+                inputSource.poll(this);
+            }
+            applyInput(i, delta, steps);
+            updateJumpRequest();
+            world.step(TIME_STEP, 6, 2);
+            stepCount++;
+            if (groundContacts > 0) {
+                lastGroundedStep = stepCount;
+            }
+        }
+
+        if (steps > 0) {
+            input.clear();
+        } else {
+            input.advance(delta);
+        }
+    }
+
+    /**
+     * Applies the queued actions that arrived during the given step of this frame
+     */
+    private void applyInput(int step, float delta, int steps) {
+        for (int i = 0; i < input.size(); i++) {
+            if (input.getStep(i, delta, steps) == step) {
+                applyInput(input.getAction(i));
+            }
+        }
+    }
+
+    /**
+     * Applies an action at the current step. Only meant for {@link InputSource}s, event driven
+     * input goes through {@link #queueInput(InputAction, float)}.
+     */
+    @Override
+    public void applyInput(InputAction action) {
+        switch (action) {
+            case JUMP:
+                if (isRunning()) {
+                    jumpRequestStep = stepCount;
+                }
+                break;
+            case DODGE:
+                startDodge();
+                break;
+            case STOP_DODGE:
+                endDodge();
+                break;
+        }
+    }
+
+    private void updateJumpRequest() {
+        if (jumpRequestStep == NO_JUMP_REQUEST) {
+            return;
+        }
+        if (canJump()) {
+            jumpRequestStep = NO_JUMP_REQUEST;
+            startJump();
+        } else if (stepCount - jumpRequestStep >= jumpBufferSteps) {
+            jumpRequestStep = NO_JUMP_REQUEST;
+        }
+    }
+
+    private boolean canJump() {
+        return isRunning() && !runnerUserData.isJumping() && !runnerUserData.isDodging() &&
+                (groundContacts > 0 || stepCount - lastGroundedStep <= coyoteSteps);
+    }
+
+    private void update(Body body) {
+        if (!BodyUtils.bodyInBounds(body)) {
+            if (BodyUtils.bodyIsEnemy(body)) {
+                enemies.removeValue(body, true);
+                if (isRunning()) {
+                    spawnEnemy();
+                }
+            } else if (body == runnerBody) {
+                runnerBody = null;
+            }
+            world.destroyBody(body);
+        }
+    }
+
+    private void updateDifficulty() {
+        if (isMaxDifficulty() || difficultyLocked) {
+            return;
+        }
+
+        if (totalTimePassed > difficulty.getLevel() * 5) {
+            difficulty = DIFFICULTIES[difficulty.ordinal() + 1];
+            applyDifficulty();
+            listener.onDifficultyChange(difficulty);
+        }
+    }
+
+    private void applyDifficulty() {
+        runnerBody.setGravityScale(difficulty.getRunnerGravityScale());
+        runnerBody.resetMassData();
+        runnerUserData.setJumpingLinearImpulse(difficulty.getRunnerJumpingLinearImpulse());
+    }
+
+    /**
+     * Queues an action to be applied at the step matching its arrival
+     *
+     * @param frameOffset seconds between the start of the current frame, the one the next
+     *                    {@link #update(float)} will simulate, and the action
+     */
+    public void queueInput(InputAction action, float frameOffset) {
+        input.add(action, frameOffset);
+    }
+
+    /**
+     * @param inputSource polled at the start of every step, or null
+     */
+    public void setInputSource(InputSource inputSource) {
+        this.inputSource = inputSource;
+    }
+
+    public void jump() {
+        queueInput(InputAction.JUMP, 0);
+    }
+
+    public void dodge() {
+        queueInput(InputAction.DODGE, 0);
+    }
+
+    public void stopDodge() {
+        queueInput(InputAction.STOP_DODGE, 0);
+    }
+
+    private void startJump() {
+        runnerBody.applyLinearImpulse(runnerUserData.getJumpingLinearImpulse(),
+                runnerBody.getWorldCenter(), true);
+        runnerUserData.setJumping(true);
+        runnerUserData.setJumpCount(runnerUserData.getJumpCount() + 1);
+        listener.onJump();
+    }
+
+    private void startDodge() {
+        if (!isRunning() || runnerUserData.isJumping()) {
+            return;
+        }
+        runnerBody.setTransform(runnerUserData.getDodgePosition(), runnerUserData.getDodgeAngle());
+        runnerUserData.setDodging(true);
+    }
+
+    private void endDodge() {
+        if (runnerUserData == null || !runnerUserData.isDodging()) {
+            return;
+        }
+        runnerUserData.setDodging(false);
+        // If the runner is hit don't force him back to the running position
+        if (!runnerUserData.isHit()) {
+            runnerBody.setTransform(runnerUserData.getRunningPosition(), 0f);
+        }
+    }
+
+    private void hit() {
+        runnerBody.applyAngularImpulse(runnerUserData.getHitAngularImpulse(), true);
+        runnerUserData.setHit(true);
+        jumpRequestStep = NO_JUMP_REQUEST;
+        listener.onRunnerHit();
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+
+        Body a = contact.getFixtureA().getBody();
+        Body b = contact.getFixtureB().getBody();
+
+        if ((BodyUtils.bodyIsRunner(a) && BodyUtils.bodyIsEnemy(b)) ||
+                (BodyUtils.bodyIsEnemy(a) && BodyUtils.bodyIsRunner(b))) {
+            if (runnerUserData.isHit()) {
+                return;
+            }
+            hit();
+        } else if ((BodyUtils.bodyIsRunner(a) && BodyUtils.bodyIsGround(b)) ||
+                (BodyUtils.bodyIsGround(a) && BodyUtils.bodyIsRunner(b))) {
+            groundContacts++;
+            runnerUserData.setJumping(false);
+        }
+
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+
+        Body a = contact.getFixtureA().getBody();
+        Body b = contact.getFixtureB().getBody();
+
+        if ((BodyUtils.bodyIsRunner(a) && BodyUtils.bodyIsGround(b)) ||
+                (BodyUtils.bodyIsGround(a) && BodyUtils.bodyIsRunner(b))) {
+            groundContacts--;
+        }
+
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+
+    }
+
+    /**
+     * Writes everything needed to continue the run with {@link #readState(ByteBuffer)}. Only
+     * valid while {@link #isRunning()}.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) difficulty.ordinal());
+        buffer.putFloat(totalTimePassed);
+        buffer.putFloat(score);
+        buffer.putLong(spawnRandom.getState());
+
+        BodyUtils.writeState(runnerBody, buffer);
+        buffer.put((byte) ((runnerUserData.isJumping() ? JUMPING_FLAG : 0) |
+                (runnerUserData.isDodging() ? DODGING_FLAG : 0)));
+        buffer.putInt(runnerUserData.getJumpCount());
+
+        buffer.putShort((short) enemies.size);
+        for (Body enemy : enemies) {
+            EnemyUserData userData = (EnemyUserData) enemy.getUserData();
+            buffer.put((byte) userData.getEnemyType().ordinal());
+            BodyUtils.writeState(enemy, buffer);
+            buffer.putFloat(userData.getLinearVelocity().x).putFloat(userData.getLinearVelocity().y);
+        }
+    }
+
+    /**
+     * Continues the run saved by {@link #writeState(ByteBuffer)}. Must be called instead of
+     * {@link #start()}; enemies are announced through {@link SimulationListener#onEnemySpawned(Body)}
+     * as usual.
+     */
+    public void readState(ByteBuffer buffer) {
+        difficulty = DIFFICULTIES[buffer.get()];
+        totalTimePassed = buffer.getFloat();
+        score = buffer.getFloat();
+        spawnRandom.setState(buffer.getLong());
+
+        createRunner();
+        BodyUtils.readState(runnerBody, buffer);
+        byte flags = buffer.get();
+        runnerUserData.setJumping((flags & JUMPING_FLAG) != 0);
+        runnerUserData.setJumpCount(buffer.getInt());
+        // Nobody is holding the screen anymore, so get back up
+        if ((flags & DODGING_FLAG) != 0) {
+            runnerUserData.setDodging(true);
+            endDodge();
+        }
+
+        int enemyCount = buffer.getShort();
+        for (int i = 0; i < enemyCount; i++) {
+            Body enemy = WorldUtils.createEnemy(world, ENEMY_TYPES[buffer.get()]);
+            BodyUtils.readState(enemy, buffer);
+            float velocityX = buffer.getFloat();
+            ((EnemyUserData) enemy.getUserData()).setLinearVelocity(
+                    new Vector2(velocityX, buffer.getFloat()));
+            addEnemy(enemy);
+        }
+    }
+
+    /**
+     * @return how many {@link #TIME_STEP}s have been simulated, the clock input is replayed
+     * against
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * @return seconds simulated so far, the clock animations run on
+     */
+    public float getSimulatedTime() {
+        return stepCount * TIME_STEP;
+    }
+
+    /**
+     * @return true if no body but the ground is awake, nothing will move until the next run
+     */
+    public boolean isSettled() {
+        world.getBodies(bodies);
+        for (int i = 0; i < bodies.size; i++) {
+            Body body = bodies.get(i);
+            if (body != groundBody && body.isAwake()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true between {@link #start()} and the runner getting hit
+     */
+    public boolean isRunning() {
+        return runnerUserData != null && !runnerUserData.isHit();
+    }
+
+    /**
+     * @return true once the runner has been hit
+     */
+    public boolean isOver() {
+        return runnerUserData != null && runnerUserData.isHit();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Body getGroundBody() {
+        return groundBody;
+    }
+
+    /**
+     * @return the runner's body, or null before the run starts and once it has left the screen
+     */
+    public Body getRunnerBody() {
+        return runnerBody;
+    }
+
+    /**
+     * @return the runner's state, which outlives its body, or null before the run starts
+     */
+    public RunnerUserData getRunnerUserData() {
+        return runnerUserData;
+    }
+
+    /**
+     * @return the enemies currently in the world, don't modify it
+     */
+    public Array<Body> getEnemies() {
+        return enemies;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public boolean isMaxDifficulty() {
+        return difficulty.ordinal() == DIFFICULTIES.length - 1;
+    }
+
+    public float getTotalTimePassed() {
+        return totalTimePassed;
+    }
+
+    public int getScore() {
+        return (int) Math.floor(score);
+    }
+
+    public void dispose() {
+        world.dispose();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.gamestudio24.martianrun.enums.InputAction;
+
+/**
+ * Actions received since the last {@link GameSimulation#update(float)}, each with how far into
+ * the frame it arrived. Kept in primitive arrays so queueing input never allocates.
+ */
+public class InputBuffer {
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    private final byte[] actions;
+    private final float[] offsets;
+    private int size;
+
+    public InputBuffer(int capacity) {
+        actions = new byte[capacity];
+        offsets = new float[capacity];
+    }
+
+    /**
+     * @param offset seconds between the start of the frame and the action
+     * @return false if the buffer is full and the action was dropped
+     */
+    public boolean add(InputAction action, float offset) {
+        if (size == actions.length) {
+            return false;
+        }
+        actions[size] = (byte) action.ordinal();
+        offsets[size] = offset;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public InputAction getAction(int index) {
+        return ACTIONS[actions[index]];
+    }
+
+    public float getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Maps the action to one of the steps covering a frame of the given length, in proportion
+     * to how far into the frame it arrived
+     */
+    public int getStep(int index, float frameTime, int steps) {
+        if (offsets[index] <= 0 || frameTime <= 0) {
+            return 0;
+        }
+        return Math.min(steps - 1, (int) (offsets[index] / frameTime * steps));
+    }
+
+    /**
+     * Makes the offsets relative to a frame starting the given seconds later, for actions that
+     * are carried over to the next frame
+     */
+    public void advance(float time) {
+        for (int i = 0; i < size; i++) {
+            offsets[i] -= time;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+}
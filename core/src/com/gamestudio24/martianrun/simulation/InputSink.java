@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.gamestudio24.martianrun.enums.InputAction;
+
+/**
+ * Takes actions as they happen, either the simulation itself or {@link SimulationThread} which
+ * hands them over to it
+ */
+public interface InputSink {
+
+    public void applyInput(InputAction action);
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+/**
+ * Input that is read by polling rather than delivered as events, such as keyboards and
+ * gamepads. Polling at every step means an action is applied at most one step after it
+ * happened, whatever the frame rate.
+ */
+public interface InputSource {
+
+    /**
+     * Called at the start of every step, report actions with
+     * {@link GameSimulation#applyInput(com.gamestudio24.martianrun.enums.InputAction)}
+     */
+    public void poll(GameSimulation simulation);
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+import com.gamestudio24.martianrun.box2d.UserData;
+import com.gamestudio24.martianrun.utils.Constants;
+
+/**
+ * What the renderer needs from one step of a {@link GameSimulation}: the screen bounds of the
+ * runner and every enemy plus the clock, score and runner pose. Captured by the simulation
+ * thread into one half of a {@link RenderStateBuffer} and read only once published.
+ */
+public class RenderState {
+
+    /** {@link #getKind(int)} of the runner, enemies use their EnemyType ordinal */
+    public static final int RUNNER_KIND = -1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int count;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private float[] bounds = new float[INITIAL_CAPACITY * 5];
+
+    private float simulatedTime;
+    private int score;
+    private boolean settled;
+    private boolean runnerJumping;
+    private boolean runnerDodging;
+    private boolean runnerHit;
+
+    void capture(GameSimulation simulation) {
+        count = 0;
+        if (simulation.getRunnerBody() != null) {
+            add(simulation.getRunnerBody(), RUNNER_KIND);
+        }
+        Array<Body> enemies = simulation.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Body enemy = enemies.get(i);
+            add(enemy, ((EnemyUserData) enemy.getUserData()).getEnemyType().ordinal());
+        }
+
+        simulatedTime = simulation.getSimulatedTime();
+        score = simulation.getScore();
+        settled = simulation.isSettled();
+        RunnerUserData runner = simulation.getRunnerUserData();
+        runnerJumping = runner != null && runner.isJumping();
+        runnerDodging = runner != null && runner.isDodging();
+        runnerHit = runner != null && runner.isHit();
+    }
+
+    private void add(Body body, int kind) {
+        if (count == ids.length) {
+            grow();
+        }
+        UserData userData = (UserData) body.getUserData();
+        ids[count] = userData.getId();
+        kinds[count] = (byte) kind;
+        // Same as PhysicsSyncSystem, in pixels and degrees
+        int offset = count * 5;
+        bounds[offset] = Constants.WORLD_TO_SCREEN * (body.getPosition().x - userData.getWidth() / 2);
+        bounds[offset + 1] = Constants.WORLD_TO_SCREEN * (body.getPosition().y - userData.getHeight() / 2);
+        bounds[offset + 2] = Constants.WORLD_TO_SCREEN * userData.getWidth();
+        bounds[offset + 3] = Constants.WORLD_TO_SCREEN * userData.getHeight();
+        bounds[offset + 4] = body.getAngle() * MathUtils.radiansToDegrees;
+        count++;
+    }
+
+    private void grow() {
+        int[] newIds = new int[ids.length * 2];
+        byte[] newKinds = new byte[newIds.length];
+        float[] newBounds = new float[newIds.length * 5];
+        System.arraycopy(ids, 0, newIds, 0, count);
+        System.arraycopy(kinds, 0, newKinds, 0, count);
+        System.arraycopy(bounds, 0, newBounds, 0, count * 5);
+        ids = newIds;
+        kinds = newKinds;
+        bounds = newBounds;
+    }
+
+    /**
+     * @return how many characters there are, the runner first if it's still in the world
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return index of the character with the given {@link UserData#getId()}, or -1
+     */
+    public int indexOf(int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public int getKind(int index) {
+        return kinds[index];
+    }
+
+    public float getX(int index) {
+        return bounds[index * 5];
+    }
+
+    public float getY(int index) {
+        return bounds[index * 5 + 1];
+    }
+
+    public float getWidth(int index) {
+        return bounds[index * 5 + 2];
+    }
+
+    public float getHeight(int index) {
+        return bounds[index * 5 + 3];
+    }
+
+    public float getRotation(int index) {
+        return bounds[index * 5 + 4];
+    }
+
+    public float getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @see GameSimulation#isSettled()
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public boolean isRunnerJumping() {
+        return runnerJumping;
+    }
+
+    public boolean isRunnerDodging() {
+        return runnerDodging;
+    }
+
+    public boolean isRunnerHit() {
+        return runnerHit;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two {@link RenderState}s, one published for the renderer and one the simulation writes the
+ * next into. Neither side ever waits: the reader always gets the latest published state, and a
+ * writer that finds the reader still holding the back buffer skips publishing that step.
+ * <p/>
+ * Both indices live in one atomic int: bit 0 is the published buffer, bits 1-2 the buffer the
+ * reader holds plus one, 0 when it holds none.
+ */
+public class RenderStateBuffer {
+
+    private static final int NOT_HELD = -1;
+
+    private final RenderState[] states = new RenderState[] {new RenderState(), new RenderState()};
+    private final AtomicInteger indices = new AtomicInteger(pack(0, NOT_HELD));
+
+    /**
+     * Writer side
+     *
+     * @return the state to capture into, or null if the reader still holds it
+     */
+    public RenderState getBackState() {
+        int current = indices.get();
+        int back = 1 - getFront(current);
+        return getHeld(current) == back ? null : states[back];
+    }
+
+    /**
+     * Writer side, makes the state returned by {@link #getBackState()} the published one
+     */
+    public void publish() {
+        while (true) {
+            int current = indices.get();
+            if (indices.compareAndSet(current, pack(1 - getFront(current), getHeld(current)))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reader side, the state stays valid until {@link #release()}
+     */
+    public RenderState acquire() {
+        while (true) {
+            int current = indices.get();
+            int front = getFront(current);
+            if (indices.compareAndSet(current, pack(front, front))) {
+                return states[front];
+            }
+        }
+    }
+
+    public void release() {
+        while (true) {
+            int current = indices.get();
+            if (indices.compareAndSet(current, pack(getFront(current), NOT_HELD))) {
+                return;
+            }
+        }
+    }
+
+    private static int pack(int front, int held) {
+        return front | (held + 1) << 1;
+    }
+
+    private static int getFront(int indices) {
+        return indices & 1;
+    }
+
+    private static int getHeld(int indices) {
+        return (indices >> 1) - 1;
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.gamestudio24.martianrun.enums.Difficulty;
+
+/**
+ * What a {@link GameSimulation} reports to whoever presents it. Called from inside
+ * {@link GameSimulation#update(float)}, possibly in the middle of a physics step, so don't
+ * create or destroy bodies from here.
+ */
+public interface SimulationListener {
+
+    public void onEnemySpawned(Body body);
+
+    public void onJump();
+
+    public void onDifficultyChange(Difficulty difficulty);
+
+    public void onRunnerHit();
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.simulation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gamestudio24.martianrun.ai.AutopilotBot;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.InputAction;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
+import com.gamestudio24.martianrun.telemetry.TelemetryFormat;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link GameSimulation} on its own thread at a fixed {@link #TICK} rate, so physics
+ * overlaps with rendering and a stall on either thread doesn't hold up the other. The two
+ * threads never share mutable state while it runs:
+ * <ul>
+ * <li>input goes in through a lock-free {@link EventQueue}, stamped with its arrival time</li>
+ * <li>every tick publishes a {@link RenderState} through a {@link RenderStateBuffer}</li>
+ * <li>listener calls come back through another {@link EventQueue}, see
+ * {@link #dispatchEvents(SimulationListener, AutopilotBot.AutopilotListener)}</li>
+ * </ul>
+ * The render thread may only touch the simulation itself between {@link #stop()} and
+ * {@link #start()}, which is how runs are set up, saved and restored.
+ */
+public class SimulationThread implements Runnable, InputSink {
+
+    public static final float TICK = 1 / 60f;
+
+    private static final long TICK_NANOS = (long) (TICK * 1e9);
+    // After a longer stall the simulation drops the backlog instead of racing to catch up
+    private static final long MAX_LAG_NANOS = TICK_NANOS * 5;
+    private static final int QUEUE_CAPACITY = 32;
+
+    private static final byte JUMP_EVENT = 0;
+    private static final byte DIFFICULTY_EVENT = 1;
+    private static final byte RUNNER_HIT_EVENT = 2;
+    private static final byte NEW_RUN_EVENT = 3;
+    private static final byte SPAWN_EVENT = 4;
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final EventQueue input = new EventQueue(QUEUE_CAPACITY);
+    private final EventQueue events = new EventQueue(QUEUE_CAPACITY);
+    private final RenderStateBuffer renderStates = new RenderStateBuffer();
+    private final EventForwarder forwarder = new EventForwarder();
+
+    private GameSimulation simulation;
+    private AutopilotBot autopilot;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @return the listener every simulation run by this thread must be created with
+     */
+    public SimulationListener getListener() {
+        return forwarder;
+    }
+
+    /**
+     * @return the listener the autopilot must be created with
+     */
+    public AutopilotBot.AutopilotListener getAutopilotListener() {
+        return forwarder;
+    }
+
+    public RenderStateBuffer getRenderStates() {
+        return renderStates;
+    }
+
+    /**
+     * Only while stopped. Publishes the new simulation straight away and drops the events left
+     * from the previous one.
+     */
+    public void setSimulation(GameSimulation simulation) {
+        this.simulation = simulation;
+        events.clear();
+        publish();
+    }
+
+    /**
+     * @param autopilot updated before every tick on this thread, or null
+     */
+    public void setAutopilot(AutopilotBot autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * Starts ticking unless it already does
+     */
+    public void start() {
+        if (thread != null && thread.isAlive()) {
+            return;
+        }
+        publish();
+        running = true;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for the current tick to finish, the simulation belongs to the caller afterwards
+     */
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Captures the simulation into the render state, only while stopped
+     */
+    public void publish() {
+        RenderState state = renderStates.getBackState();
+        if (state != null && simulation != null) {
+            state.capture(simulation);
+            renderStates.publish();
+        }
+    }
+
+    /**
+     * Render thread side, hands the action over as having happened now
+     */
+    @Override
+    public void applyInput(InputAction action) {
+        queueInput(action, TimeUtils.nanoTime());
+    }
+
+    /**
+     * Render thread side
+     *
+     * @param time {@link TimeUtils#nanoTime()} of the event
+     */
+    public void queueInput(InputAction action, long time) {
+        input.offer((byte) action.ordinal(), 0, time);
+    }
+
+    /**
+     * Render thread side, calls the listeners for everything that happened since the last call
+     */
+    public void dispatchEvents(SimulationListener listener,
+                               AutopilotBot.AutopilotListener autopilotListener) {
+        while (events.poll()) {
+            switch (events.getType()) {
+                case JUMP_EVENT:
+                    listener.onJump();
+                    break;
+                case DIFFICULTY_EVENT:
+                    listener.onDifficultyChange(DIFFICULTIES[events.getValue()]);
+                    break;
+                case RUNNER_HIT_EVENT:
+                    listener.onRunnerHit();
+                    break;
+                case NEW_RUN_EVENT:
+                    autopilotListener.onNewRunRequested();
+                    break;
+                case SPAWN_EVENT:
+                    // The body stays with the simulation, entities follow the render state
+                    Telemetry.getInstance().record(TelemetryFormat.SPAWN, events.getValue());
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long tickTime = TimeUtils.nanoTime();
+        while (running) {
+            applyInput(tickTime - TICK_NANOS);
+            if (autopilot != null) {
+                autopilot.update(simulation, TICK);
+            }
+            simulation.update(TICK);
+            publish();
+
+            // Nothing moves until the next run, which starts the thread again
+            if (autopilot == null && !simulation.isRunning() && simulation.isSettled()) {
+                return;
+            }
+
+            tickTime += TICK_NANOS;
+            long wait = tickTime - TimeUtils.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            } else if (-wait > MAX_LAG_NANOS) {
+                tickTime = TimeUtils.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Queues the input that arrived during the last tick at the matching step of this one
+     */
+    private void applyInput(long frameStartTime) {
+        while (input.poll()) {
+            float offset = (input.getTime() - frameStartTime) / 1e9f;
+            simulation.queueInput(ACTIONS[input.getType()], Math.max(0, Math.min(offset, TICK)));
+        }
+    }
+
+    private void offerEvent(byte type, int value) {
+        if (events.offer(type, value, 0)) {
+            // The render thread may be idle and would only see it on the next frame
+            Gdx.graphics.requestRendering();
+        }
+    }
+
+    private class EventForwarder implements SimulationListener, AutopilotBot.AutopilotListener {
+
+        @Override
+        public void onEnemySpawned(Body body) {
+            offerEvent(SPAWN_EVENT, ((EnemyUserData) body.getUserData()).getEnemyType().ordinal());
+        }
+
+        @Override
+        public void onJump() {
+            offerEvent(JUMP_EVENT, 0);
+        }
+
+        @Override
+        public void onDifficultyChange(Difficulty difficulty) {
+            offerEvent(DIFFICULTY_EVENT, difficulty.ordinal());
+        }
+
+        @Override
+        public void onRunnerHit() {
+            offerEvent(RUNNER_HIT_EVENT, 0);
+        }
+
+        @Override
+        public void onNewRunRequested() {
+            offerEvent(NEW_RUN_EVENT, 0);
+        }
+
+    }
+
+}
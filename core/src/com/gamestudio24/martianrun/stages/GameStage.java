@@ -16,32 +16,65 @@
 
 package com.gamestudio24.martianrun.stages;
 
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.scenes.scene2d.Stage;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Scaling;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.ScalingViewport;
 import com.gamestudio24.martianrun.actors.*;
 import com.gamestudio24.martianrun.actors.menu.*;
+import com.gamestudio24.martianrun.ai.AutopilotBot;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
 import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.GameSound;
 import com.gamestudio24.martianrun.enums.GameState;
+import com.gamestudio24.martianrun.enums.InputAction;
+import com.gamestudio24.martianrun.enums.TextureAsset;
+import com.gamestudio24.martianrun.input.ControlBindings;
+import com.gamestudio24.martianrun.input.GameControls;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.simulation.SimulationListener;
+import com.gamestudio24.martianrun.simulation.SimulationThread;
+import com.gamestudio24.martianrun.systems.*;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
+import com.gamestudio24.martianrun.telemetry.TelemetryFormat;
 import com.gamestudio24.martianrun.utils.*;
 
-public class GameStage extends Stage implements ContactListener {
+import java.nio.ByteBuffer;
+
+public class GameStage extends Stage {
 
     private static final int VIEWPORT_WIDTH = Constants.APP_WIDTH;
     private static final int VIEWPORT_HEIGHT = Constants.APP_HEIGHT;
 
-    private World world;
-    private Ground ground;
-    private Runner runner;
-
-    private final float TIME_STEP = 1 / 300f;
-    private float accumulator = 0f;
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int SNAPSHOT_MAX_BYTES = 1024;
+
+    private GameSimulation simulation;
+    // Only when the simulation runs on its own thread
+    private SimulationThread simulationThread;
+    private RenderStateSystem renderStateSystem;
+    private final GameSimulationListener simulationListener = new GameSimulationListener();
+    private final GameAutopilotListener autopilotListener = new GameAutopilotListener();
+    private Engine engine;
+    private AnimationSystem animationSystem;
+    private RenderSystem renderSystem;
+    private GhostSystem ghostSystem;
+    // The best run's ghost and the run being recorded, null without ghosts
+    private GhostRecording ghost;
+    private GhostRecording ghostRecording;
+    private ResolutionScaler resolutionScaler;
+    private Entity runner;
 
     private OrthographicCamera camera;
 
@@ -58,22 +91,37 @@ public class GameStage extends Stage implements ContactListener {
     private AchievementsButton achievementsButton;
 
     private Score score;
-    private float totalTimePassed;
     private boolean tutorialShown;
 
     private Vector3 touchPoint;
+    private long frameStartTime;
+
+    private ByteBuffer snapshotBuffer;
+
+    private AutopilotBot autopilot;
+    private GameControls controls;
 
     public GameStage() {
         super(new ScalingViewport(Scaling.stretch, VIEWPORT_WIDTH, VIEWPORT_HEIGHT,
                 new OrthographicCamera(VIEWPORT_WIDTH, VIEWPORT_HEIGHT)));
+        controls = new GameControls(new ControlBindings());
+        if (GameManager.getInstance().getOptions().isPhysicsThread()) {
+            simulationThread = new SimulationThread();
+        }
         setUpCamera();
+        setUpResolutionScaler();
+        setUpGhosts();
+        setUpEngine();
         setUpStageBase();
         setUpGameLabel();
         setUpMainMenu();
         setUpTouchControlAreas();
         Gdx.input.setInputProcessor(this);
         AudioUtils.getInstance().init();
+        snapshotBuffer = ByteBuffer.allocate(SNAPSHOT_MAX_BYTES);
+        setUpAutopilot();
         onGameOver();
+        restoreSnapshot();
     }
 
     private void setUpStageBase() {
@@ -188,33 +236,133 @@ public class GameStage extends Stage implements ContactListener {
     }
 
     private void setUpWorld() {
-        world = WorldUtils.createWorld();
-        world.setContactListener(this);
-        setUpBackground();
-        setUpGround();
-    }
-
-    private void setUpBackground() {
-        addActor(new Background());
+        keepBestGhost();
+        // Every entity of the previous world goes with its bodies
+        engine.removeAllEntities();
+        runner = null;
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+        if (simulation != null) {
+            simulation.dispose();
+        }
+        simulation = new GameSimulation(RandomUtils.getSpawnRandom(), simulationThread != null
+                ? simulationThread.getListener() : simulationListener);
+        GameOptions options = GameManager.getInstance().getOptions();
+        simulation.setJumpBufferTime(options.getJumpBufferTime());
+        simulation.setCoyoteTime(options.getCoyoteTime());
+        if (simulationThread != null) {
+            // Controls are polled by act() and handed over with the touch input
+            simulationThread.setSimulation(simulation);
+        } else {
+            simulation.setInputSource(controls);
+        }
+        animationSystem.setTime(simulation.getSimulatedTime());
+        EntityUtils.createBackground(engine);
+        EntityUtils.createGround(engine, simulation.getGroundBody());
     }
 
-    private void setUpGround() {
-        ground = new Ground(WorldUtils.createGround(world));
-        addActor(ground);
+    /**
+     * The game world is made of Ashley entities, Scene2D actors are only used for the HUD and
+     * menus. The engine isn't updated while paused. With a simulation thread the characters
+     * follow its published render state instead of the bodies.
+     */
+    private void setUpEngine() {
+        engine = new Engine();
+        if (simulationThread != null) {
+            renderStateSystem = new RenderStateSystem(simulationThread.getRenderStates(), 0);
+            engine.addSystem(renderStateSystem);
+        } else {
+            engine.addSystem(new PhysicsSyncSystem(0));
+        }
+        engine.addSystem(new CullingSystem(getCamera(), 1));
+        engine.addSystem(new ScrollSystem(2));
+        engine.addSystem(new RunnerSystem(3));
+        animationSystem = new AnimationSystem(5);
+        ghostSystem = new GhostSystem(animationSystem, 4);
+        engine.addSystem(ghostSystem);
+        engine.addSystem(animationSystem);
+        renderSystem = new RenderSystem();
+        engine.addSystem(renderSystem);
     }
 
     private void setUpCharacters() {
+        setUpGhost(true);
         setUpRunner();
         setUpPauseLabel();
-        createEnemy();
+        simulation.spawnEnemy();
     }
 
     private void setUpRunner() {
         if (runner != null) {
-            runner.remove();
+            engine.removeEntity(runner);
+        }
+        simulation.createRunner();
+        if (simulationThread == null) {
+            runner = EntityUtils.createRunner(engine, simulation.getRunnerBody());
+        }
+    }
+
+    private void setUpGhosts() {
+        if (GameManager.getInstance().getOptions().isGhost()) {
+            ghost = new GhostRecording();
+            ghostRecording = new GhostRecording();
+            GhostUtils.load(ghost);
+        }
+    }
+
+    /**
+     * Adds the best run's ghost, before the runner so it's drawn behind it
+     *
+     * @param record true to record the run, only when it starts from the beginning
+     */
+    private void setUpGhost(boolean record) {
+        if (ghost == null) {
+            return;
+        }
+        if (ghost.size() > 0) {
+            EntityUtils.createGhost(engine, ghost);
+        }
+        if (record) {
+            ghostRecording.clear();
+            ghostSystem.setRecording(ghostRecording);
+        }
+    }
+
+    /**
+     * Ends the recording of the last run and keeps it if it beat the best one
+     */
+    private void keepBestGhost() {
+        if (ghostSystem.getRecording() == null) {
+            return;
+        }
+        ghostSystem.setRecording(null);
+        if (ghostRecording.getScore() > ghost.getScore()) {
+            ghost.swap(ghostRecording);
+            GhostUtils.save(ghost);
+        }
+    }
+
+    private void setUpResolutionScaler() {
+        GameOptions options = GameManager.getInstance().getOptions();
+        resolutionScaler = new ResolutionScaler(options.getRenderScale(),
+                options.isDynamicResolution());
+        resolutionScaler.resize(Gdx.graphics.getBackBufferWidth(),
+                Gdx.graphics.getBackBufferHeight());
+    }
+
+    private void setUpAutopilot() {
+        GameOptions options = GameManager.getInstance().getOptions();
+        if (options.isAutopilot()) {
+            if (simulationThread != null) {
+                autopilot = new AutopilotBot(RandomUtils.newStream(), options.getReactionTime(),
+                        options.getReactionJitter(), simulationThread.getAutopilotListener());
+                simulationThread.setAutopilot(autopilot);
+            } else {
+                autopilot = new AutopilotBot(RandomUtils.newStream(), options.getReactionTime(),
+                        options.getReactionJitter(), autopilotListener);
+            }
         }
-        runner = new Runner(WorldUtils.createRunner(world));
-        addActor(runner);
     }
 
     private void setUpCamera() {
@@ -251,7 +399,7 @@ public class GameStage extends Stage implements ContactListener {
         float x = getCamera().viewportWidth / 4 - width / 2;
         Rectangle leftTutorialBounds = new Rectangle(x, getCamera().viewportHeight * 9 / 20, width,
                 width);
-        addActor(new Tutorial(leftTutorialBounds, Constants.TUTORIAL_LEFT_REGION_NAME,
+        addActor(new Tutorial(leftTutorialBounds, TextureAsset.TUTORIAL_LEFT,
                 Constants.TUTORIAL_LEFT_TEXT));
     }
 
@@ -260,56 +408,123 @@ public class GameStage extends Stage implements ContactListener {
         float x = getCamera().viewportWidth * 3 / 4 - width / 2;
         Rectangle rightTutorialBounds = new Rectangle(x, getCamera().viewportHeight * 9 / 20, width,
                 width);
-        addActor(new Tutorial(rightTutorialBounds, Constants.TUTORIAL_RIGHT_REGION_NAME,
+        addActor(new Tutorial(rightTutorialBounds, TextureAsset.TUTORIAL_RIGHT,
                 Constants.TUTORIAL_RIGHT_TEXT));
     }
 
+    /**
+     * @return true while something moves without input. Once a run is over that lasts until the
+     * runner falls asleep and the last enemy leaves, or for good with the autopilot as it only
+     * starts the next run from {@link #act(float)}.
+     */
+    public boolean isAnimating() {
+        switch (GameManager.getInstance().getGameState()) {
+            case RUNNING:
+                return true;
+            case PAUSED:
+                return false;
+            default:
+                if (autopilot != null) {
+                    return true;
+                }
+                return simulationThread != null ? !renderStateSystem.isSettled()
+                        : !simulation.isSettled();
+        }
+    }
+
+    public void resize(int width, int height) {
+        getViewport().update(width, height, true);
+        resolutionScaler.resize(Gdx.graphics.getBackBufferWidth(),
+                Gdx.graphics.getBackBufferHeight());
+    }
+
     @Override
-    public void act(float delta) {
-        super.act(delta);
+    public void draw() {
+        Camera camera = getCamera();
+        camera.update();
+        Batch batch = getBatch();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        if (resolutionScaler.isActive()) {
+            resolutionScaler.begin(batch);
+            renderSystem.draw(batch);
+            resolutionScaler.end(batch, getViewport());
+        } else {
+            renderSystem.draw(batch);
+        }
+        batch.end();
 
-        if (GameManager.getInstance().getGameState() == GameState.PAUSED) return;
+        // The HUD and menus, at native resolution
+        super.draw();
+    }
+
+    @Override
+    public void dispose() {
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+        super.dispose();
+        resolutionScaler.dispose();
+        ImmutableArray<EntitySystem> systems = engine.getSystems();
+        while (systems.size() > 0) {
+            engine.removeSystem(systems.first());
+        }
+    }
 
+    @Override
+    public void act(float delta) {
+        frameStartTime = TimeUtils.nanoTime();
+        super.act(delta);
         if (GameManager.getInstance().getGameState() == GameState.RUNNING) {
-            totalTimePassed += delta;
-            updateDifficulty();
+            // Idle frames are paced by RenderScheduler and say nothing about headroom
+            resolutionScaler.update(delta);
         }
 
-        Array<Body> bodies = new Array<Body>(world.getBodyCount());
-        world.getBodies(bodies);
+        pollMenuControls();
 
-        for (Body body : bodies) {
-            update(body);
+        if (GameManager.getInstance().getGameState() == GameState.PAUSED) return;
+
+        if (simulationThread != null) {
+            controls.poll(simulationThread);
+            simulationThread.dispatchEvents(simulationListener, autopilotListener);
+            engine.update(delta);
+            score.setScore(renderStateSystem.getScore());
+            return;
         }
 
-        // Fixed timestep
-        accumulator += delta;
+        animationSystem.setTime(simulation.getSimulatedTime());
+        engine.update(delta);
 
-        while (accumulator >= delta) {
-            world.step(TIME_STEP, 6, 2);
-            accumulator -= TIME_STEP;
+        if (autopilot != null) {
+            autopilot.update(simulation, delta);
         }
 
+        simulation.update(delta);
+        score.setScore(simulation.getScore());
+
         //TODO: Implement interpolation
 
     }
 
-    private void update(Body body) {
-        if (!BodyUtils.bodyInBounds(body)) {
-            if (BodyUtils.bodyIsEnemy(body) && !runner.isHit()) {
-                createEnemy();
-            }
-            world.destroyBody(body);
+    private void pollMenuControls() {
+        boolean pausePressed = controls.pollPause();
+        boolean startPressed = controls.pollStart();
+        switch (GameManager.getInstance().getGameState()) {
+            case RUNNING:
+            case PAUSED:
+                if (pausePressed) {
+                    pauseButton.press();
+                }
+                break;
+            case OVER:
+                if (startPressed) {
+                    controls.consumeJump();
+                    startButton.press();
+                }
+                break;
         }
     }
 
-    private void createEnemy() {
-        Enemy enemy = new Enemy(WorldUtils.createEnemy(world));
-        enemy.getUserData().setLinearVelocity(
-                GameManager.getInstance().getDifficulty().getEnemyLinearVelocity());
-        addActor(enemy);
-    }
-
     @Override
     public boolean touchDown(int x, int y, int pointer, int button) {
 
@@ -326,9 +541,9 @@ public class GameStage extends Stage implements ContactListener {
         }
 
         if (rightSideTouched(touchPoint.x, touchPoint.y)) {
-            runner.jump();
+            queueInput(InputAction.JUMP);
         } else if (leftSideTouched(touchPoint.x, touchPoint.y)) {
-            runner.dodge();
+            queueInput(InputAction.DODGE);
         }
 
         return super.touchDown(x, y, pointer, button);
@@ -341,9 +556,7 @@ public class GameStage extends Stage implements ContactListener {
             return super.touchUp(screenX, screenY, pointer, button);
         }
 
-        if (runner.isDodging()) {
-            runner.stopDodge();
-        }
+        queueInput(InputAction.STOP_DODGE);
 
         return super.touchUp(screenX, screenY, pointer, button);
     }
@@ -375,6 +588,31 @@ public class GameStage extends Stage implements ContactListener {
         return screenLeftSide.contains(x, y);
     }
 
+    /**
+     * The simulation applies the action at the step matching the time of the event being handled
+     */
+    private void queueInput(InputAction action) {
+        if (simulationThread != null) {
+            simulationThread.queueInput(action, getInputTime());
+        } else {
+            simulation.queueInput(action, (getInputTime() - frameStartTime) / 1e9f);
+        }
+    }
+
+    /**
+     * @return {@link TimeUtils#nanoTime()} of the event being handled, no earlier than the start
+     * of the last frame
+     */
+    private long getInputTime() {
+        long now = TimeUtils.nanoTime();
+        long eventTime = Gdx.input.getCurrentEventTime();
+        // Not every backend stamps events with the same clock as TimeUtils
+        if (eventTime < frameStartTime || eventTime > now) {
+            eventTime = now;
+        }
+        return eventTime;
+    }
+
     /**
      * Helper function to get the actual coordinates in my world
      *
@@ -385,68 +623,154 @@ public class GameStage extends Stage implements ContactListener {
         getCamera().unproject(touchPoint.set(x, y, 0));
     }
 
-    @Override
-    public void beginContact(Contact contact) {
+    private void displayAd() {
+        GameManager.getInstance().displayAd();
+    }
 
-        Body a = contact.getFixtureA().getBody();
-        Body b = contact.getFixtureB().getBody();
+    /**
+     * The app goes to the background: the simulation thread, if any, stops before the run is
+     * saved
+     */
+    public void pause() {
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+        if (GameManager.getInstance().getGameState() == GameState.OVER) {
+            // The process may not come back for the next run
+            keepBestGhost();
+        }
+        saveSnapshot();
+    }
 
-        if ((BodyUtils.bodyIsRunner(a) && BodyUtils.bodyIsEnemy(b)) ||
-                (BodyUtils.bodyIsEnemy(a) && BodyUtils.bodyIsRunner(b))) {
-            if (runner.isHit()) {
-                return;
-            }
-            runner.hit();
-            displayAd();
-            GameManager.getInstance().submitScore(score.getScore());
-            onGameOver();
-            GameManager.getInstance().addGamePlayed();
-            GameManager.getInstance().addJumpCount(runner.getJumpCount());
-        } else if ((BodyUtils.bodyIsRunner(a) && BodyUtils.bodyIsGround(b)) ||
-                (BodyUtils.bodyIsGround(a) && BodyUtils.bodyIsRunner(b))) {
-            runner.landed();
+    /**
+     * The app is back: restores the saved run, or lets the simulation thread carry on with the
+     * current one
+     */
+    public void resume() {
+        restoreSnapshot();
+        if (simulationThread != null
+                && GameManager.getInstance().getGameState() != GameState.PAUSED) {
+            simulationThread.start();
+        }
+    }
+
+    /**
+     * Saves the run in progress, if any, in a single pass so it can be restored by
+     * {@link #restoreSnapshot()} even if the process is killed in the meantime
+     */
+    public void saveSnapshot() {
+        GameState gameState = GameManager.getInstance().getGameState();
+        if ((gameState != GameState.RUNNING && gameState != GameState.PAUSED) || !simulation.isRunning()) {
+            return;
         }
 
+        snapshotBuffer.clear();
+        snapshotBuffer.putInt(SNAPSHOT_VERSION);
+        simulation.writeState(snapshotBuffer);
+
+        SnapshotUtils.save(snapshotBuffer.array(), snapshotBuffer.position());
     }
 
-    private void updateDifficulty() {
+    /**
+     * Puts back the run saved by {@link #saveSnapshot()}, paused. Does nothing if a run is
+     * already in progress or there's nothing to restore.
+     */
+    public void restoreSnapshot() {
+        if (GameManager.getInstance().getGameState() != GameState.OVER) {
+            return;
+        }
 
-        if (GameManager.getInstance().isMaxDifficulty()) {
+        byte[] bytes = SnapshotUtils.load();
+        if (bytes == null) {
             return;
         }
 
-        Difficulty currentDifficulty = GameManager.getInstance().getDifficulty();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != SNAPSHOT_VERSION) {
+                SnapshotUtils.delete();
+                return;
+            }
 
-        if (totalTimePassed > GameManager.getInstance().getDifficulty().getLevel() * 5) {
+            clear();
+            setUpStageBase();
+            simulation.readState(buffer);
+            setUpGhost(false);
+            if (simulationThread != null) {
+                // The characters are created from the render state, the engine isn't updated
+                // while paused
+                simulationThread.publish();
+                engine.update(0);
+            } else {
+                runner = EntityUtils.createRunner(engine, simulation.getRunnerBody());
+            }
+            setUpPauseLabel();
+            tutorialShown = true;
+            GameManager.getInstance().setDifficulty(simulation.getDifficulty());
+            score.setScore(simulation.getScore());
 
-            int nextDifficulty = currentDifficulty.getLevel() + 1;
-            String difficultyName = "DIFFICULTY_" + nextDifficulty;
-            GameManager.getInstance().setDifficulty(Difficulty.valueOf(difficultyName));
+            onGamePaused();
+            // Created after pausing so it shows the resume icon
+            setUpPause();
+        } catch (RuntimeException e) {
+            Gdx.app.error(GameStage.class.getSimpleName(), "Discarding unreadable snapshot", e);
+            SnapshotUtils.delete();
+            clear();
+            setUpStageBase();
+            setUpGameLabel();
+            onGameOver();
+        }
+    }
 
-            runner.onDifficultyChange(GameManager.getInstance().getDifficulty());
-            score.setMultiplier(GameManager.getInstance().getDifficulty().getScoreMultiplier());
+    private class GameSimulationListener implements SimulationListener {
 
-            displayAd();
+        @Override
+        public void onEnemySpawned(Body body) {
+            EntityUtils.createEnemy(engine, body);
+            Telemetry.getInstance().record(TelemetryFormat.SPAWN,
+                    ((EnemyUserData) body.getUserData()).getEnemyType().ordinal());
         }
 
-    }
+        @Override
+        public void onJump() {
+            AudioUtils.getInstance().playSound(GameSound.JUMP);
+        }
 
-    private void displayAd() {
-        GameManager.getInstance().displayAd();
-    }
+        @Override
+        public void onDifficultyChange(Difficulty difficulty) {
+            Telemetry.getInstance().record(TelemetryFormat.DIFFICULTY, difficulty.ordinal());
+            GameManager.getInstance().setDifficulty(difficulty);
+            displayAd();
+        }
 
-    @Override
-    public void endContact(Contact contact) {
+        /**
+         * With a simulation thread this comes from
+         * {@link SimulationThread#dispatchEvents(SimulationListener, AutopilotBot.AutopilotListener)},
+         * reading the score and jump count is still safe as neither changes once the runner is hit
+         */
+        @Override
+        public void onRunnerHit() {
+            Telemetry.getInstance().record(TelemetryFormat.DEATH, simulation.getScore());
+            AudioUtils.getInstance().playSound(GameSound.HIT);
+            SnapshotUtils.delete();
+            displayAd();
+            GameManager.getInstance().submitScore(simulation.getScore());
+            if (ghostRecording != null) {
+                ghostRecording.setScore(simulation.getScore());
+            }
+            onGameOver();
+            GameManager.getInstance().addGamePlayed();
+            GameManager.getInstance().addJumpCount(simulation.getRunnerUserData().getJumpCount());
+        }
 
     }
 
-    @Override
-    public void preSolve(Contact contact, Manifold oldManifold) {
-
-    }
+    private class GameAutopilotListener implements AutopilotBot.AutopilotListener {
 
-    @Override
-    public void postSolve(Contact contact, ContactImpulse impulse) {
+        @Override
+        public void onNewRunRequested() {
+            startNewGame();
+        }
 
     }
 
@@ -468,12 +792,7 @@ public class GameStage extends Stage implements ContactListener {
 
         @Override
         public void onStart() {
-            clear();
-            setUpStageBase();
-            setUpCharacters();
-            setUpPause();
-            setUpTutorial();
-            onGameResumed();
+            startNewGame();
         }
 
     }
@@ -523,18 +842,37 @@ public class GameStage extends Stage implements ContactListener {
 
     }
 
+    private void startNewGame() {
+        Telemetry.getInstance().record(TelemetryFormat.RUN_START, 0);
+        clear();
+        setUpStageBase();
+        setUpCharacters();
+        setUpPause();
+        setUpTutorial();
+        onGameResumed();
+    }
+
     private void onGamePaused() {
         GameManager.getInstance().setGameState(GameState.PAUSED);
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
     }
 
     private void onGameResumed() {
         GameManager.getInstance().setGameState(GameState.RUNNING);
+        if (simulationThread != null) {
+            simulationThread.start();
+        }
     }
 
     private void onGameOver() {
         GameManager.getInstance().setGameState(GameState.OVER);
+        if (simulationThread != null) {
+            // Keeps going until the world settles, or the autopilot starts a new run
+            simulationThread.start();
+        }
         GameManager.getInstance().resetDifficulty();
-        totalTimePassed = 0;
         setUpMainMenu();
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.gamestudio24.martianrun.components.AnimationComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.TextureComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.enums.AnimationAsset;
+import com.gamestudio24.martianrun.utils.AssetsManager;
+
+/**
+ * Shows the current key frame of playing, visible entities. Every animation runs on one clock,
+ * set from the simulation with {@link #setTime(float)} rather than advanced by frame deltas, so
+ * it stops while paused and is the same on every run of a replay.
+ */
+public class AnimationSystem extends IteratingSystem {
+
+    // Indexed by AnimationAsset, e.g. all enemies of a type share their type's slot
+    private final SharedAnimation[] sharedAnimations;
+    private float time;
+
+    public AnimationSystem(int priority) {
+        super(Family.all(AnimationComponent.class, TextureComponent.class,
+                TransformComponent.class).get(), priority);
+        sharedAnimations = new SharedAnimation[AnimationAsset.values().length];
+    }
+
+    /**
+     * @return the state every entity playing asset shares
+     */
+    public SharedAnimation share(AnimationAsset asset) {
+        SharedAnimation sharedAnimation = sharedAnimations[asset.ordinal()];
+        if (sharedAnimation == null) {
+            sharedAnimation = new SharedAnimation(AssetsManager.getAnimation(asset), time);
+            sharedAnimations[asset.ordinal()] = sharedAnimation;
+        }
+        return sharedAnimation;
+    }
+
+    public float getTime() {
+        return time;
+    }
+
+    /**
+     * @param time seconds of simulated game time
+     */
+    public void setTime(float time) {
+        this.time = time;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        AnimationComponent animation = Mappers.animation.get(entity);
+        if (animation.playing && Mappers.transform.get(entity).visible) {
+            Mappers.texture.get(entity).region = animation.animation.getKeyFrame(time);
+        }
+    }
+
+}
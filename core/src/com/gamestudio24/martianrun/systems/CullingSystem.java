@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.components.BodyComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.utils.Constants;
+import com.gamestudio24.martianrun.utils.SpatialGrid;
+
+/**
+ * Files every moving entity into a {@link SpatialGrid} and marks visible only the ones in cells
+ * on or near the camera that overlap it. Animation and rendering skip everything else.
+ */
+public class CullingSystem extends EntitySystem {
+
+    private static final float CELL_SIZE = 160f;
+    private static final float NEAR_SCREEN_MARGIN = 64f;
+
+    private final Camera camera;
+    private final SpatialGrid<TransformComponent> grid;
+    private final Array<TransformComponent> candidates;
+    private final Rectangle activeBounds;
+    private ImmutableArray<Entity> entities;
+
+    public CullingSystem(Camera camera, int priority) {
+        super(priority);
+        this.camera = camera;
+        // Entities are spawned just past the right edge and leave past the left one
+        grid = new SpatialGrid<TransformComponent>(new Rectangle(-Constants.APP_WIDTH, 0,
+                Constants.APP_WIDTH * 3, Constants.APP_HEIGHT), CELL_SIZE);
+        candidates = new Array<TransformComponent>();
+        activeBounds = new Rectangle();
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(Family.all(BodyComponent.class,
+                TransformComponent.class).get());
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        grid.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            TransformComponent transform = Mappers.transform.get(entities.get(i));
+            transform.visible = false;
+            grid.insert(transform, transform.bounds);
+        }
+
+        updateActiveBounds();
+        candidates.clear();
+        grid.query(activeBounds, candidates);
+        for (int i = 0; i < candidates.size; i++) {
+            TransformComponent transform = candidates.get(i);
+            // Candidates only share a cell with the bounds, and can be listed more than once
+            if (!transform.visible && transform.bounds.overlaps(activeBounds)) {
+                transform.visible = true;
+            }
+        }
+    }
+
+    private void updateActiveBounds() {
+        float zoom = camera instanceof OrthographicCamera ? ((OrthographicCamera) camera).zoom : 1f;
+        float width = camera.viewportWidth * zoom;
+        float height = camera.viewportHeight * zoom;
+        activeBounds.set(camera.position.x - width / 2 - NEAR_SCREEN_MARGIN,
+                camera.position.y - height / 2 - NEAR_SCREEN_MARGIN,
+                width + NEAR_SCREEN_MARGIN * 2, height + NEAR_SCREEN_MARGIN * 2);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.gamestudio24.martianrun.components.AnimationComponent;
+import com.gamestudio24.martianrun.components.GhostComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.RunnerComponent;
+import com.gamestudio24.martianrun.components.TextureComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.utils.GhostRecording;
+
+/**
+ * Records the live runner's pose and poses ghosts from their recordings. Both run on the
+ * simulation step, read from the {@link AnimationSystem} clock, so it has to come after
+ * {@link RunnerSystem} picked the live pose and before animations are played.
+ */
+public class GhostSystem extends EntitySystem {
+
+    private final AnimationSystem clock;
+    private ImmutableArray<Entity> runners;
+    private ImmutableArray<Entity> ghosts;
+    private GhostRecording recording;
+
+    public GhostSystem(AnimationSystem clock, int priority) {
+        super(priority);
+        this.clock = clock;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        runners = engine.getEntitiesFor(Family.all(RunnerComponent.class,
+                TransformComponent.class).exclude(GhostComponent.class).get());
+        ghosts = engine.getEntitiesFor(Family.all(GhostComponent.class, RunnerComponent.class,
+                AnimationComponent.class, TextureComponent.class, TransformComponent.class).get());
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        runners = null;
+        ghosts = null;
+    }
+
+    /**
+     * @param recording where the live runner is recorded, or null to stop recording
+     */
+    public void setRecording(GhostRecording recording) {
+        this.recording = recording;
+    }
+
+    public GhostRecording getRecording() {
+        return recording;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        long step = Math.round(clock.getTime() / GameSimulation.TIME_STEP);
+
+        if (recording != null) {
+            for (int i = 0; i < runners.size(); i++) {
+                Entity runner = runners.get(i);
+                recording.record(step, Mappers.transform.get(runner), Mappers.runner.get(runner));
+            }
+        }
+
+        for (int i = 0; i < ghosts.size(); i++) {
+            Entity ghost = ghosts.get(i);
+            TransformComponent transform = Mappers.transform.get(ghost);
+            transform.visible = Mappers.ghost.get(ghost).recording.sample(step, transform,
+                    Mappers.runner.get(ghost));
+            if (transform.visible) {
+                RunnerSystem.updatePose(ghost);
+            }
+        }
+    }
+
+}
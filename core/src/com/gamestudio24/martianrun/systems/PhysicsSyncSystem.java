@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.gamestudio24.martianrun.box2d.UserData;
+import com.gamestudio24.martianrun.components.BodyComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.utils.Constants;
+
+/**
+ * Moves every transform to its body, and removes the entity once the world destroyed the body
+ * (enemy or runner went out of bounds)
+ */
+public class PhysicsSyncSystem extends IteratingSystem {
+
+    public PhysicsSyncSystem(int priority) {
+        super(Family.all(BodyComponent.class, TransformComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        Body body = Mappers.body.get(entity).body;
+        if (body.getUserData() == null) {
+            getEngine().removeEntity(entity);
+            return;
+        }
+        sync(body, Mappers.transform.get(entity));
+    }
+
+    public static void sync(Body body, TransformComponent transform) {
+        UserData userData = (UserData) body.getUserData();
+        transform.bounds.set(
+                Constants.WORLD_TO_SCREEN * (body.getPosition().x - userData.getWidth() / 2),
+                Constants.WORLD_TO_SCREEN * (body.getPosition().y - userData.getHeight() / 2),
+                Constants.WORLD_TO_SCREEN * userData.getWidth(),
+                Constants.WORLD_TO_SCREEN * userData.getHeight());
+        transform.rotation = body.getAngle() * MathUtils.radiansToDegrees;
+    }
+
+}
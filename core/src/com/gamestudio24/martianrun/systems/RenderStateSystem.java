@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.gamestudio24.martianrun.components.BodyComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.RunnerComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.simulation.RenderState;
+import com.gamestudio24.martianrun.simulation.RenderStateBuffer;
+import com.gamestudio24.martianrun.utils.EntityUtils;
+
+/**
+ * Takes the place of {@link PhysicsSyncSystem} when the simulation runs on its own thread: the
+ * characters follow the latest published {@link RenderState}, entities are created for new ids
+ * and removed once their id is gone.
+ */
+public class RenderStateSystem extends EntitySystem {
+
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+
+    private final RenderStateBuffer renderStates;
+    private ImmutableArray<Entity> entities;
+    private int score;
+    private boolean settled;
+
+    public RenderStateSystem(RenderStateBuffer renderStates, int priority) {
+        super(priority);
+        this.renderStates = renderStates;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(Family.all(BodyComponent.class,
+                TransformComponent.class).get());
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        RenderState state = renderStates.acquire();
+        // Before creating entities, their first frame is picked at this time
+        getEngine().getSystem(AnimationSystem.class).setTime(state.getSimulatedTime());
+
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            int index = state.indexOf(Mappers.body.get(entity).id);
+            if (index == -1) {
+                getEngine().removeEntity(entity);
+            } else {
+                apply(state, index, entity);
+            }
+        }
+
+        // Removals and additions only take effect once the engine update is over
+        for (int index = 0; index < state.getCount(); index++) {
+            if (!contains(state.getId(index))) {
+                int kind = state.getKind(index);
+                Entity entity;
+                if (kind == RenderState.RUNNER_KIND) {
+                    entity = EntityUtils.createRunner(getEngine(), state.getId(index));
+                } else {
+                    entity = EntityUtils.createEnemy(getEngine(), state.getId(index), ENEMY_TYPES[kind]);
+                }
+                apply(state, index, entity);
+            }
+        }
+
+        score = state.getScore();
+        settled = state.isSettled();
+
+        renderStates.release();
+    }
+
+    /**
+     * @return the score as of the last update
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return true if nothing moved in the state seen by the last update
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    private boolean contains(int id) {
+        for (int i = 0; i < entities.size(); i++) {
+            if (Mappers.body.get(entities.get(i)).id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void apply(RenderState state, int index, Entity entity) {
+        TransformComponent transform = Mappers.transform.get(entity);
+        transform.bounds.set(state.getX(index), state.getY(index), state.getWidth(index),
+                state.getHeight(index));
+        transform.rotation = state.getRotation(index);
+
+        RunnerComponent runner = Mappers.runner.get(entity);
+        if (runner != null) {
+            runner.jumping = state.isRunnerJumping();
+            runner.dodging = state.isRunnerDodging();
+            runner.hit = state.isRunnerHit();
+            RunnerSystem.updatePose(entity);
+        }
+    }
+
+}
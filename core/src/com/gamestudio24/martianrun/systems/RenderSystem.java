@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.TextureComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+
+/**
+ * Draws the game world, layer by layer. Engine updates skip it: the stage calls
+ * {@link #draw(Batch)} when it draws, before the HUD.
+ */
+public class RenderSystem extends EntitySystem implements EntityListener {
+
+    private static final Family FAMILY = Family.all(TransformComponent.class,
+            TextureComponent.class).get();
+
+    // Kept in layer order as entities come and go instead of sorting every frame
+    private final Array<Entity> entities;
+
+    public RenderSystem() {
+        entities = new Array<Entity>();
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(FAMILY, this);
+        for (Entity entity : engine.getEntitiesFor(FAMILY)) {
+            entityAdded(entity);
+        }
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        entities.clear();
+    }
+
+    @Override
+    public boolean checkProcessing() {
+        return false;
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        int layer = Mappers.texture.get(entity).layer;
+        int index = entities.size;
+        while (index > 0 && Mappers.texture.get(entities.get(index - 1)).layer > layer) {
+            index--;
+        }
+        entities.insert(index, entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        entities.removeValue(entity, true);
+    }
+
+    public void draw(Batch batch) {
+        // Translucency goes through the vertex color, so it doesn't break the batch
+        Color color = batch.getColor();
+        float red = color.r;
+        float green = color.g;
+        float blue = color.b;
+        float baseAlpha = color.a;
+        float alpha = 1f;
+        for (int i = 0; i < entities.size; i++) {
+            Entity entity = entities.get(i);
+            TransformComponent transform = Mappers.transform.get(entity);
+            TextureComponent texture = Mappers.texture.get(entity);
+            if (!transform.visible || texture.region == null) {
+                continue;
+            }
+
+            if (texture.alpha != alpha) {
+                alpha = texture.alpha;
+                batch.setColor(red, green, blue, baseAlpha * alpha);
+            }
+
+            Rectangle bounds = transform.bounds;
+            float padding = bounds.width * texture.widthPadding;
+            float x = bounds.x - padding;
+            float y = bounds.y + bounds.height * texture.yOffset;
+            float width = bounds.width + padding * 2;
+            float height = bounds.height * texture.heightScale;
+            if (transform.rotation == 0f) {
+                batch.draw(texture.region, x, y, width, height);
+            } else {
+                batch.draw(texture.region, x, y, width * 0.5f, height * 0.5f, width, height, 1f, 1f,
+                        transform.rotation);
+            }
+        }
+        if (alpha != 1f) {
+            batch.setColor(red, green, blue, baseAlpha);
+        }
+    }
+
+}
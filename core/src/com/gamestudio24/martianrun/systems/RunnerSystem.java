@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+import com.gamestudio24.martianrun.components.AnimationComponent;
+import com.gamestudio24.martianrun.components.GhostComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.RunnerComponent;
+import com.gamestudio24.martianrun.components.TextureComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+
+/**
+ * Picks the runner's pose. Running is left to {@link AnimationSystem}, which runs after this.
+ * Ghosts are posed by {@link GhostSystem}.
+ */
+public class RunnerSystem extends IteratingSystem {
+
+    public RunnerSystem(int priority) {
+        super(Family.all(RunnerComponent.class, AnimationComponent.class, TextureComponent.class,
+                TransformComponent.class).exclude(GhostComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        updatePose(entity);
+    }
+
+    public static void updatePose(Entity entity) {
+        RunnerComponent runner = Mappers.runner.get(entity);
+        RunnerUserData userData = runner.userData;
+        if (userData != null) {
+            runner.jumping = userData.isJumping();
+            runner.dodging = userData.isDodging();
+            runner.hit = userData.isHit();
+        }
+        TextureComponent texture = Mappers.texture.get(entity);
+        TransformComponent transform = Mappers.transform.get(entity);
+
+        texture.yOffset = 0f;
+        texture.heightScale = 1f;
+        Mappers.animation.get(entity).playing = false;
+
+        if (runner.dodging) {
+            texture.region = runner.dodgingTexture;
+            texture.yOffset = 0.25f;
+            texture.heightScale = 0.75f;
+        } else if (runner.hit) {
+            // When he's hit we also want to apply rotation if the body has been rotated
+            texture.region = runner.hitTexture;
+        } else if (runner.jumping) {
+            texture.region = runner.jumpingTexture;
+        } else {
+            Mappers.animation.get(entity).playing = true;
+        }
+
+        if (!runner.hit) {
+            transform.rotation = 0f;
+        }
+    }
+
+}
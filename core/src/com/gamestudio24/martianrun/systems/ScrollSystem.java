@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.math.Rectangle;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.ScrollComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.enums.GameState;
+import com.gamestudio24.martianrun.utils.GameManager;
+import com.gamestudio24.martianrun.utils.GameStateListener;
+
+/**
+ * Scrolls the background and ground tiles, only while running
+ */
+public class ScrollSystem extends IteratingSystem implements GameStateListener {
+
+    public ScrollSystem(int priority) {
+        super(Family.all(ScrollComponent.class, TransformComponent.class).get(), priority);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        setProcessing(GameManager.getInstance().getGameState() == GameState.RUNNING);
+        GameManager.getInstance().addGameStateListener(this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        super.removedFromEngine(engine);
+        GameManager.getInstance().removeGameStateListener(this);
+    }
+
+    @Override
+    public void onGameStateChanged(GameState previousState, GameState gameState) {
+        setProcessing(gameState == GameState.RUNNING);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        ScrollComponent scroll = Mappers.scroll.get(entity);
+        Rectangle bounds = Mappers.transform.get(entity).bounds;
+        bounds.x -= scroll.speed * deltaTime;
+        if (bounds.x + bounds.width <= 0) {
+            bounds.x += scroll.wrapWidth;
+        }
+    }
+
+}
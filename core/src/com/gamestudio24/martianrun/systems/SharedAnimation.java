@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.systems;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * The state of one animation, shared by every entity playing it: they all show the same key
+ * frame, looked up at most once per frame. Obtained from
+ * {@link AnimationSystem#share(com.gamestudio24.martianrun.enums.AnimationAsset)}.
+ */
+public class SharedAnimation {
+
+    private final Animation animation;
+    private TextureRegion keyFrame;
+    private float keyFrameTime;
+
+    SharedAnimation(Animation animation, float time) {
+        this.animation = animation;
+        keyFrame = animation.getKeyFrame(time, true);
+        keyFrameTime = time;
+    }
+
+    public TextureRegion getKeyFrame(float time) {
+        if (time != keyFrameTime) {
+            keyFrame = animation.getKeyFrame(time, true);
+            keyFrameTime = time;
+        }
+        return keyFrame;
+    }
+
+}
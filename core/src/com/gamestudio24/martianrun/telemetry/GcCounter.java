@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.telemetry;
+
+/**
+ * Reads the platform's garbage collection count, which core can't do portably
+ */
+public interface GcCounter {
+
+    /**
+     * @return collections since the process started, or -1 if the platform doesn't tell
+     */
+    public long getCollectionCount();
+
+}
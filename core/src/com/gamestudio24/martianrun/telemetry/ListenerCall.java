@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.telemetry;
+
+/**
+ * The {@link com.gamestudio24.martianrun.utils.GameEventListener} calls whose latency is
+ * recorded. Only append, the ordinal is part of the log format.
+ */
+public enum ListenerCall {
+
+    DISPLAY_AD,
+    HIDE_AD,
+    SUBMIT_SCORE,
+    DISPLAY_LEADERBOARD,
+    DISPLAY_ACHIEVEMENTS,
+    SHARE,
+    UNLOCK_ACHIEVEMENT,
+    INCREMENT_ACHIEVEMENT
+
+}
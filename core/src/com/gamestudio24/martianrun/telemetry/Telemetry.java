@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.telemetry;
+
+import com.gamestudio24.martianrun.simulation.EventQueue;
+
+import java.io.File;
+
+/**
+ * Records how runs go in the field: frame times, garbage collections, difficulty changes,
+ * spawns, deaths and how long {@link com.gamestudio24.martianrun.utils.GameEventListener} calls
+ * take. A record is a type, an int and a timestamp put in a preallocated ring, which costs tens
+ * of nanoseconds and allocates nothing, so it's left on in release builds. {@link TelemetryWriter}
+ * takes them to disk in the background; when it falls behind records are dropped and counted.
+ * <p/>
+ * Only the render thread records, everything is a no-op until {@link #start(File)}.
+ */
+public class Telemetry {
+
+    private static final Telemetry instance = new Telemetry();
+
+    // A minute of frames, flushes come every few seconds
+    private static final int CAPACITY = 4096;
+    // Once a second at 60 fps, reading the count isn't free on every platform
+    private static final int GC_SAMPLE_FRAMES = 60;
+    private static final int MAX_MICROS = Integer.MAX_VALUE;
+
+    private final EventQueue records = new EventQueue(CAPACITY);
+    private GcCounter gcCounter;
+    private TelemetryWriter writer;
+    private long lastGcCount = -1;
+    private int framesUntilGcSample;
+    // Only written by the recording thread
+    private volatile int dropped;
+
+    public static Telemetry getInstance() {
+        return instance;
+    }
+
+    private Telemetry() {
+    }
+
+    /**
+     * @param gcCounter null if the platform can't count collections
+     */
+    public void setGcCounter(GcCounter gcCounter) {
+        this.gcCounter = gcCounter;
+    }
+
+    /**
+     * Starts a session logging to the given directory
+     */
+    public void start(File directory) {
+        if (writer != null) {
+            return;
+        }
+        dropped = 0;
+        lastGcCount = -1;
+        writer = new TelemetryWriter(records, CAPACITY, this, directory);
+        writer.start();
+    }
+
+    /**
+     * Ends the session once everything recorded is written
+     */
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        writer.stop();
+        writer = null;
+    }
+
+    /**
+     * Writes what was recorded so far without waiting, i.e. before the app may be killed in the
+     * background
+     */
+    public void flush() {
+        if (writer != null) {
+            writer.requestFlush();
+        }
+    }
+
+    public boolean isRecording() {
+        return writer != null;
+    }
+
+    /**
+     * @param delta seconds since the last frame
+     */
+    public void recordFrame(float delta) {
+        if (writer == null) {
+            return;
+        }
+        record(TelemetryFormat.FRAME, (int) Math.min(delta * 1e6f, MAX_MICROS));
+
+        if (gcCounter != null && --framesUntilGcSample <= 0) {
+            framesUntilGcSample = GC_SAMPLE_FRAMES;
+            long count = gcCounter.getCollectionCount();
+            if (count >= 0 && lastGcCount >= 0 && count != lastGcCount) {
+                record(TelemetryFormat.GC, (int) (count - lastGcCount));
+            }
+            lastGcCount = count;
+        }
+    }
+
+    /**
+     * @param type one of the {@link TelemetryFormat} record types
+     */
+    public void record(byte type, int value) {
+        if (writer != null) {
+            record(type, value, System.nanoTime());
+        }
+    }
+
+    private void record(byte type, int value, long time) {
+        if (!records.offer(type, value, time)) {
+            dropped++;
+        }
+    }
+
+    /**
+     * @return the start time to pass to {@link #endCall(ListenerCall, long)}
+     */
+    public long startCall() {
+        return writer != null ? System.nanoTime() : 0;
+    }
+
+    public void endCall(ListenerCall call, long startTime) {
+        if (writer == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        record((byte) (TelemetryFormat.LISTENER_CALL + call.ordinal()),
+                (int) Math.min((now - startTime) / 1000, MAX_MICROS), now);
+    }
+
+    /**
+     * @return records lost to a full ring since the session started
+     */
+    int getDropped() {
+        return dropped;
+    }
+
+}
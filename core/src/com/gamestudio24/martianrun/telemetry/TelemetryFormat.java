@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.telemetry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The telemetry log: a sequence of self-contained blocks, appended as they're flushed.
+ * <pre>
+ * block   int MAGIC, byte VERSION, long session (start time, ms since the epoch),
+ *         int device (cores &lt;&lt; 16 | max heap in MB),
+ *         long time of the first record (us since the session started), int record count,
+ *         int records dropped so far in the session, int raw length, int compressed length,
+ *         then the records, raw deflate compressed
+ * record  type, varlong us since the previous record, zigzag varint value
+ * </pre>
+ * Each block can be located from the headers alone and inflated on its own. The blocks of a
+ * session are contiguous, but rotation may split a session between files.
+ */
+public class TelemetryFormat {
+
+    public static final int MAGIC = 0x4d52544c;
+    public static final byte VERSION = 2;
+    public static final int HEADER_BYTES = 41;
+    // Type, varlong and varint
+    public static final int MAX_RECORD_BYTES = 1 + 10 + 5;
+
+    /** Value: frame time in us */
+    public static final byte FRAME = 0;
+    /** Value: garbage collections since the last one of these */
+    public static final byte GC = 1;
+    /** Value: {@link com.gamestudio24.martianrun.enums.Difficulty} ordinal */
+    public static final byte DIFFICULTY = 2;
+    /** Value: {@link com.gamestudio24.martianrun.enums.EnemyType} ordinal */
+    public static final byte SPAWN = 3;
+    /** Value: 0 */
+    public static final byte RUN_START = 4;
+    /** Value: score */
+    public static final byte DEATH = 5;
+    /** Plus the {@link ListenerCall} ordinal. Value: us the call took. */
+    public static final byte LISTENER_CALL = 16;
+
+    public static int encodeDevice(int cores, long maxMemory) {
+        return Math.min(cores, 0x7fff) << 16 | (int) Math.min(maxMemory / (1024 * 1024), 0xffff);
+    }
+
+    public static int getDeviceCores(int device) {
+        return device >>> 16;
+    }
+
+    public static int getDeviceHeapMegabytes(int device) {
+        return device & 0xffff;
+    }
+
+    public static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Zigzag encoded so small negative values stay short
+     */
+    public static void putSignedVarInt(ByteBuffer buffer, int value) {
+        putVarLong(buffer, ((value << 1) ^ (value >> 31)) & 0xffffffffL);
+    }
+
+    public static int getSignedVarInt(ByteBuffer buffer) {
+        int value = (int) getVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
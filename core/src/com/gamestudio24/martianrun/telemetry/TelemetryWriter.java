@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.telemetry;
+
+import com.badlogic.gdx.Gdx;
+import com.gamestudio24.martianrun.simulation.EventQueue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+
+/**
+ * Drains {@link Telemetry}'s records on its own thread and appends them to the log as
+ * {@link TelemetryFormat} blocks. Once the log passes {@link #MAX_FILE_BYTES} it's renamed aside
+ * and only the newest {@link #MAX_ROTATED_FILES} of those are kept, so everything waiting for
+ * an upload stays under a couple of megabytes.
+ */
+class TelemetryWriter implements Runnable {
+
+    public static final String LOG_FILE_NAME = "telemetry.log";
+    public static final String ROTATED_FILE_PREFIX = "telemetry-";
+
+    private static final String LOG_TAG = TelemetryWriter.class.getSimpleName();
+    private static final long FLUSH_INTERVAL_NANOS = 5000000000L;
+    private static final long MAX_FILE_BYTES = 256 * 1024;
+    private static final int MAX_ROTATED_FILES = 8;
+
+    private final EventQueue records;
+    private final int maxBlockRecords;
+    private final Telemetry telemetry;
+    private final File directory;
+    private final long session;
+    private final int device;
+    private final long sessionStartTime;
+    private final ByteBuffer raw;
+    private final ByteBuffer header;
+    private final Deflater deflater;
+    private byte[] compressed;
+    private long lastRecordTime;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public TelemetryWriter(EventQueue records, int capacity, Telemetry telemetry, File directory) {
+        this.records = records;
+        this.telemetry = telemetry;
+        this.directory = directory;
+        maxBlockRecords = capacity;
+        session = System.currentTimeMillis();
+        device = TelemetryFormat.encodeDevice(Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory());
+        sessionStartTime = System.nanoTime();
+        raw = ByteBuffer.allocate(capacity * TelemetryFormat.MAX_RECORD_BYTES);
+        header = ByteBuffer.allocate(TelemetryFormat.HEADER_BYTES);
+        // Raw deflate, the block header already says what follows
+        deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        compressed = new byte[raw.capacity() / 2];
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, "Telemetry");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Writes what's left and waits for the thread to end
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deflater.end();
+    }
+
+    /**
+     * Flushes now instead of at the next interval, i.e. before the app may be killed
+     */
+    public void requestFlush() {
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+            flush();
+        }
+        flush();
+    }
+
+    private void flush() {
+        try {
+            while (writeBlock()) {
+                // Until the queue is empty
+            }
+        } catch (IOException e) {
+            Gdx.app.error(LOG_TAG, "Couldn't write telemetry, dropping it", e);
+            while (records.poll()) {
+                // Keeps the queue from filling up while the disk is in trouble
+            }
+        }
+    }
+
+    /**
+     * @return false if there was nothing to write
+     */
+    private boolean writeBlock() throws IOException {
+        raw.clear();
+        int count = 0;
+        long firstTime = 0;
+        while (count < maxBlockRecords && records.poll()) {
+            long time = records.getTime();
+            if (count == 0) {
+                firstTime = time;
+                lastRecordTime = time;
+            }
+            raw.put(records.getType());
+            TelemetryFormat.putVarLong(raw, Math.max(0, (time - lastRecordTime) / 1000));
+            TelemetryFormat.putSignedVarInt(raw, records.getValue());
+            lastRecordTime = time;
+            count++;
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, raw.position());
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, compressedLength);
+                compressed = grown;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength,
+                    compressed.length - compressedLength);
+        }
+
+        header.clear();
+        header.putInt(TelemetryFormat.MAGIC);
+        header.put(TelemetryFormat.VERSION);
+        header.putLong(session);
+        header.putInt(device);
+        header.putLong((firstTime - sessionStartTime) / 1000);
+        header.putInt(count);
+        header.putInt(telemetry.getDropped());
+        header.putInt(raw.position());
+        header.putInt(compressedLength);
+
+        append(compressedLength);
+        return true;
+    }
+
+    private void append(int compressedLength) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+        File log = new File(directory, LOG_FILE_NAME);
+        if (log.length() + TelemetryFormat.HEADER_BYTES + compressedLength > MAX_FILE_BYTES) {
+            rotate(log);
+        }
+
+        FileOutputStream out = new FileOutputStream(log, true);
+        try {
+            // A single write, a block is never left half written by anything but a crash
+            out.write(concat(compressedLength));
+        } finally {
+            out.close();
+        }
+    }
+
+    private byte[] concat(int compressedLength) {
+        byte[] block = new byte[TelemetryFormat.HEADER_BYTES + compressedLength];
+        System.arraycopy(header.array(), 0, block, 0, TelemetryFormat.HEADER_BYTES);
+        System.arraycopy(compressed, 0, block, TelemetryFormat.HEADER_BYTES, compressedLength);
+        return block;
+    }
+
+    private void rotate(File log) {
+        if (log.length() == 0) {
+            return;
+        }
+        File rotated = new File(directory, ROTATED_FILE_PREFIX + System.currentTimeMillis() + ".log");
+        if (!log.renameTo(rotated)) {
+            Gdx.app.error(LOG_TAG, "Couldn't rotate " + log);
+            return;
+        }
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        // Timestamped names sort oldest first
+        Arrays.sort(files);
+        int rotatedFiles = 0;
+        for (File file : files) {
+            if (file.getName().startsWith(ROTATED_FILE_PREFIX)) {
+                rotatedFiles++;
+            }
+        }
+        for (int i = 0; i < files.length && rotatedFiles > MAX_ROTATED_FILES; i++) {
+            if (files[i].getName().startsWith(ROTATED_FILE_PREFIX) && files[i].delete()) {
+                rotatedFiles--;
+            }
+        }
+    }
+
+}
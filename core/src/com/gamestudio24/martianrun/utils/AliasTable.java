@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+/**
+ * Weighted selection in O(1) per sample using Vose's alias method. The table is built once and
+ * is read only afterwards, so it can be shared by any number of threads as long as each one
+ * passes its own {@link GameRandom}.
+ *
+ * @see <a href="http://www.keithschwarz.com/darts-dice-coins/">Darts, Dice, and Coins</a>
+ */
+public class AliasTable<E> {
+
+    private final E[] values;
+    private final float[] probabilities;
+    private final int[] aliases;
+
+    public AliasTable(E[] values, float[] weights) {
+        if (values.length == 0 || values.length != weights.length) {
+            throw new IllegalArgumentException("One weight per value is required");
+        }
+
+        int count = values.length;
+        this.values = values.clone();
+        probabilities = new float[count];
+        aliases = new int[count];
+
+        float total = 0;
+        for (float weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights can't be negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        // Scale so the average column holds exactly 1, then pair every short column with a tall one
+        float[] scaled = new float[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / total;
+            if (scaled[i] < 1f) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1f;
+            if (scaled[more] < 1f) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is 1 give or take rounding errors
+        while (largeCount > 0) {
+            probabilities[large[--largeCount]] = 1f;
+        }
+        while (smallCount > 0) {
+            probabilities[small[--smallCount]] = 1f;
+        }
+    }
+
+    public E sample(GameRandom random) {
+        int column = random.nextInt(values.length);
+        return random.nextFloat() < probabilities[column] ? values[column] : values[aliases[column]];
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary index of the shipped assets, written by the headless AssetPipeline. Every file is
+ * listed under the name of the art it was built from, so the game asks for "jump.wav" and gets
+ * whatever the pipeline encoded it to, with its size, CRC32 and image dimensions. Sprite
+ * atlases are stored as plain region tables, one per packed scale, so nothing parses a text
+ * atlas or looks for files at runtime.
+ */
+public class AssetManifest {
+
+    public static final String FILE_NAME = "assets.bin";
+
+    private static final int MAGIC = 0x4d524d46;
+    private static final int VERSION = 1;
+
+    private final ObjectMap<String, Entry> entries = new ObjectMap<String, Entry>();
+    private final Array<Atlas> atlases = new Array<Atlas>();
+
+    public static class Entry {
+
+        public final String name;
+        public final String file;
+        public final long size;
+        public final int crc;
+        /** Image dimensions, 0 for anything that isn't an image */
+        public final int width;
+        public final int height;
+
+        public Entry(String name, String file, long size, int crc, int width, int height) {
+            this.name = name;
+            this.file = file;
+            this.size = size;
+            this.crc = crc;
+            this.width = width;
+            this.height = height;
+        }
+
+    }
+
+    public static class Atlas {
+
+        public final String name;
+        public final float scale;
+        public final Texture.TextureFilter minFilter;
+        public final Texture.TextureFilter magFilter;
+        /** {@link Entry} names of the page images */
+        public final Array<String> pages = new Array<String>();
+        public final Array<Region> regions = new Array<Region>();
+
+        public Atlas(String name, float scale, Texture.TextureFilter minFilter,
+                     Texture.TextureFilter magFilter) {
+            this.name = name;
+            this.scale = scale;
+            this.minFilter = minFilter;
+            this.magFilter = magFilter;
+        }
+
+    }
+
+    public static class Region {
+
+        public final String name;
+        public final int index;
+        public final int page;
+        public final int x;
+        public final int y;
+        public final int width;
+        public final int height;
+
+        public Region(String name, int index, int page, int x, int y, int width, int height) {
+            this.name = name;
+            this.index = index;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+    }
+
+    public void addEntry(Entry entry) {
+        entries.put(entry.name, entry);
+    }
+
+    /**
+     * @return the entry built from the named art, or null if it doesn't ship
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    public void addAtlas(Atlas atlas) {
+        atlases.add(atlas);
+    }
+
+    /**
+     * @param displayScale how large the art is drawn compared to its source size
+     * @return the smallest scale of the atlas that's still at least displayScale, the largest one
+     * if none is
+     */
+    public Atlas getAtlas(String name, float displayScale) {
+        Atlas best = null;
+        for (Atlas atlas : atlases) {
+            if (!atlas.name.equals(name)) {
+                continue;
+            }
+            if (best == null || (best.scale < displayScale ? atlas.scale > best.scale :
+                    atlas.scale >= displayScale && atlas.scale < best.scale)) {
+                best = atlas;
+            }
+        }
+        if (best == null) {
+            throw new GdxRuntimeException("No atlas " + name + " in " + FILE_NAME);
+        }
+        return best;
+    }
+
+    public static AssetManifest read(FileHandle file) {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(file.read()));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new GdxRuntimeException(file + " isn't a version " + VERSION + " manifest");
+            }
+            AssetManifest manifest = new AssetManifest();
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                manifest.addEntry(new Entry(in.readUTF(), in.readUTF(), in.readLong(),
+                        in.readInt(), in.readInt(), in.readInt()));
+            }
+            int atlasCount = in.readInt();
+            Texture.TextureFilter[] filters = Texture.TextureFilter.values();
+            for (int i = 0; i < atlasCount; i++) {
+                Atlas atlas = new Atlas(in.readUTF(), in.readFloat(), filters[in.readByte()],
+                        filters[in.readByte()]);
+                int pageCount = in.readInt();
+                for (int j = 0; j < pageCount; j++) {
+                    atlas.pages.add(in.readUTF());
+                }
+                int regionCount = in.readInt();
+                for (int j = 0; j < regionCount; j++) {
+                    atlas.regions.add(new Region(in.readUTF(), in.readInt(), in.readInt(),
+                            in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+                }
+                manifest.addAtlas(atlas);
+            }
+            return manifest;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    public void write(FileHandle file) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size);
+            for (Entry entry : entries.values()) {
+                out.writeUTF(entry.name);
+                out.writeUTF(entry.file);
+                out.writeLong(entry.size);
+                out.writeInt(entry.crc);
+                out.writeInt(entry.width);
+                out.writeInt(entry.height);
+            }
+            out.writeInt(atlases.size);
+            for (Atlas atlas : atlases) {
+                out.writeUTF(atlas.name);
+                out.writeFloat(atlas.scale);
+                out.writeByte(atlas.minFilter.ordinal());
+                out.writeByte(atlas.magFilter.ordinal());
+                out.writeInt(atlas.pages.size);
+                for (String page : atlas.pages) {
+                    out.writeUTF(page);
+                }
+                out.writeInt(atlas.regions.size);
+                for (Region region : atlas.regions) {
+                    out.writeUTF(region.name);
+                    out.writeInt(region.index);
+                    out.writeInt(region.page);
+                    out.writeInt(region.x);
+                    out.writeInt(region.y);
+                    out.writeInt(region.width);
+                    out.writeInt(region.height);
+                }
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+}
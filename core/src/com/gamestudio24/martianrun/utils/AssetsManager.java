@@ -17,129 +17,273 @@
 package com.gamestudio24.martianrun.utils;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-
-import java.util.HashMap;
+import com.badlogic.gdx.graphics.glutils.ETC1TextureData;
+import com.gamestudio24.martianrun.enums.AnimationAsset;
+import com.gamestudio24.martianrun.enums.AssetGroup;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.enums.FontAsset;
+import com.gamestudio24.martianrun.enums.TextureAsset;
+import com.gamestudio24.martianrun.enums.TextureFormat;
 
+/**
+ * Every asset has a dense handle, the ordinal of its {@link TextureAsset}, {@link AnimationAsset}
+ * or {@link FontAsset}, and is kept in a plain array at that index. Assets are loaded by
+ * {@link AssetGroup}: each group is reference counted and unloaded when its last user releases
+ * it. Files are found through the {@link AssetManifest} and texture formats are picked once per
+ * {@link AssetGroup#GAME} load by {@link TextureFormatSelector}.
+ */
 public class AssetsManager {
 
-    private static HashMap<String, TextureRegion> texturesMap = new HashMap<String, TextureRegion>();
-    private static HashMap<String, Animation> animationsMap = new HashMap<String, Animation>();
+    private static final String LOG_TAG = AssetsManager.class.getSimpleName();
+
+    private static final TextureAsset[] TEXTURE_ASSETS = TextureAsset.values();
+    private static final AnimationAsset[] ANIMATION_ASSETS = AnimationAsset.values();
+    private static final FontAsset[] FONT_ASSETS = FontAsset.values();
+
+    private static final TextureRegion[] textures = new TextureRegion[TEXTURE_ASSETS.length];
+    private static final Animation[] animations = new Animation[ANIMATION_ASSETS.length];
+    private static final BitmapFont[] fonts = new BitmapFont[FONT_ASSETS.length];
+    private static final int[] groupReferences = new int[AssetGroup.values().length];
+    private static AssetManifest manifest;
     private static TextureAtlas textureAtlas;
-    private static BitmapFont smallFont;
-    private static BitmapFont smallestFont;
-    private static BitmapFont largeFont;
+    private static TextureFormatSelector textureFormats;
 
     private AssetsManager() {
 
     }
 
     public static void loadAssets() {
+        acquire(AssetGroup.GAME);
+    }
 
-        // Background
-        texturesMap.put(Constants.BACKGROUND_ASSETS_ID,
-                new TextureRegion(new Texture(Gdx.files.internal(Constants.BACKGROUND_IMAGE_PATH))));
-
-        // Ground
-        texturesMap.put(Constants.GROUND_ASSETS_ID,
-                new TextureRegion(new Texture(Gdx.files.internal(Constants.GROUND_IMAGE_PATH))));
-
-        textureAtlas = new TextureAtlas(Constants.SPRITES_ATLAS_PATH);
-
-        // Runner
-        texturesMap.put(Constants.RUNNER_JUMPING_ASSETS_ID,
-                textureAtlas.findRegion(Constants.RUNNER_JUMPING_REGION_NAME));
-        texturesMap.put(Constants.RUNNER_DODGING_ASSETS_ID,
-                textureAtlas.findRegion(Constants.RUNNER_DODGING_REGION_NAME));
-        texturesMap.put(Constants.RUNNER_HIT_ASSETS_ID,
-                textureAtlas.findRegion(Constants.RUNNER_HIT_REGION_NAME));
-        animationsMap.put(Constants.RUNNER_RUNNING_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.RUNNER_RUNNING_REGION_NAMES));
-
-        // Enemies
-        animationsMap.put(Constants.RUNNING_SMALL_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.RUNNING_SMALL_ENEMY_REGION_NAMES));
-        animationsMap.put(Constants.RUNNING_BIG_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.RUNNING_BIG_ENEMY_REGION_NAMES));
-        animationsMap.put(Constants.RUNNING_LONG_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.RUNNING_LONG_ENEMY_REGION_NAMES));
-        animationsMap.put(Constants.RUNNING_WIDE_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.RUNNING_WIDE_ENEMY_REGION_NAMES));
-        animationsMap.put(Constants.FLYING_SMALL_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.FLYING_SMALL_ENEMY_REGION_NAMES));
-        animationsMap.put(Constants.FLYING_WIDE_ENEMY_ASSETS_ID, createAnimation(textureAtlas,
-                Constants.FLYING_WIDE_ENEMY_REGION_NAMES));
-
-        // Tutorial
-        texturesMap.put(Constants.TUTORIAL_LEFT_REGION_NAME,
-                textureAtlas.findRegion(Constants.TUTORIAL_LEFT_REGION_NAME));
-        texturesMap.put(Constants.TUTORIAL_RIGHT_REGION_NAME,
-                textureAtlas.findRegion(Constants.TUTORIAL_RIGHT_REGION_NAME));
-
-        // Fonts
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal(Constants.FONT_NAME));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = 36;
-        smallFont = generator.generateFont(parameter);
-        smallFont.setColor(.21f, .22f, .21f, 1f);
-        parameter.size = 72;
-        largeFont = generator.generateFont(parameter);
-        largeFont.setColor(.21f, .22f, .21f, 1f);
-        parameter.size = 24;
-        smallestFont = generator.generateFont(parameter);
-        smallestFont.setColor(.21f, .22f, .21f, 1f);
-        generator.dispose();
-
-    }
-
-    public static TextureRegion getTextureRegion(String key) {
-        return texturesMap.get(key);
-    }
-
-    public static Animation getAnimation(String key) {
-        return animationsMap.get(key);
+    /**
+     * Loads the group unless it's already loaded, every call must be matched by a
+     * {@link #release(AssetGroup)}
+     */
+    public static void acquire(AssetGroup group) {
+        if (groupReferences[group.ordinal()]++ == 0) {
+            load(group);
+        }
     }
 
-    private static Animation createAnimation(TextureAtlas textureAtlas, String[] regionNames) {
+    /**
+     * Unloads the group once nobody else uses it
+     */
+    public static void release(AssetGroup group) {
+        if (groupReferences[group.ordinal()] == 0) {
+            throw new IllegalStateException(group + " isn't loaded");
+        }
+        if (--groupReferences[group.ordinal()] == 0) {
+            unload(group);
+        }
+    }
 
-        TextureRegion[] runningFrames = new TextureRegion[regionNames.length];
+    public static boolean isLoaded(AssetGroup group) {
+        return groupReferences[group.ordinal()] > 0;
+    }
 
-        for (int i = 0; i < regionNames.length; i++) {
-            String path = regionNames[i];
-            runningFrames[i] = textureAtlas.findRegion(path);
-        }
+    public static TextureRegion getTextureRegion(TextureAsset asset) {
+        return textures[asset.ordinal()];
+    }
 
-        return new Animation(0.1f, runningFrames);
+    public static Animation getAnimation(AnimationAsset asset) {
+        return animations[asset.ordinal()];
+    }
 
+    public static Animation getAnimation(EnemyType enemyType) {
+        return animations[enemyType.getAnimationAsset().ordinal()];
+    }
+
+    /**
+     * @return the index of the shipped assets, read on first use and kept for the whole process
+     */
+    public static AssetManifest getManifest() {
+        if (manifest == null) {
+            manifest = AssetManifest.read(Gdx.files.internal(AssetManifest.FILE_NAME));
+        }
+        return manifest;
+    }
+
+    /**
+     * @param name file name of the source art
+     * @return the file the asset pipeline built from it, or null if it doesn't ship
+     */
+    public static FileHandle getFile(String name) {
+        AssetManifest.Entry entry = getManifest().getEntry(name);
+        return entry != null ? Gdx.files.internal(entry.file) : null;
     }
 
     public static TextureAtlas getTextureAtlas() {
         return textureAtlas;
     }
 
+    /**
+     * @return formats the game textures are loaded in, null until {@link #loadAssets()}
+     */
+    public static TextureFormatSelector getTextureFormats() {
+        return textureFormats;
+    }
+
     public static BitmapFont getSmallFont() {
-        return smallFont;
+        return fonts[FontAsset.SMALL.ordinal()];
     }
 
     public static BitmapFont getLargeFont() {
-        return largeFont;
+        return fonts[FontAsset.LARGE.ordinal()];
     }
 
     public static BitmapFont getSmallestFont() {
-        return smallestFont;
+        return fonts[FontAsset.SMALLEST.ordinal()];
     }
 
     public static void dispose() {
-        textureAtlas.dispose();
-        smallestFont.dispose();
-        smallFont.dispose();
-        largeFont.dispose();
-        texturesMap.clear();
-        animationsMap.clear();
+        for (AssetGroup group : AssetGroup.values()) {
+            if (isLoaded(group)) {
+                unload(group);
+                groupReferences[group.ordinal()] = 0;
+            }
+        }
+    }
+
+    private static void load(AssetGroup group) {
+        if (group == AssetGroup.GAME) {
+            AssetManifest.Atlas atlas = getManifest().getAtlas(Constants.SPRITES_ATLAS_NAME,
+                    Gdx.graphics.getHeight() / (float) Constants.APP_HEIGHT);
+            textureFormats = selectTextureFormats(atlas);
+            textureAtlas = createAtlas(atlas, textureFormats.getTranslucentFormat());
+        } else if (textureAtlas == null) {
+            throw new IllegalStateException(group + " needs the sprites atlas of " +
+                    AssetGroup.GAME);
+        }
+
+        for (TextureAsset asset : TEXTURE_ASSETS) {
+            if (asset.getGroup() == group) {
+                textures[asset.ordinal()] = asset.getFileName() != null ?
+                        new TextureRegion(loadTexture(asset)) :
+                        textureAtlas.findRegion(asset.getRegionName());
+            }
+        }
+
+        for (AnimationAsset asset : ANIMATION_ASSETS) {
+            if (asset.getGroup() == group) {
+                animations[asset.ordinal()] = createAnimation(textureAtlas, asset.getRegionNames());
+            }
+        }
+
+        for (FontAsset asset : FONT_ASSETS) {
+            if (asset.getGroup() == group) {
+                BitmapFont font = new BitmapFont(getFile(asset.getFileName()));
+                font.setColor(.21f, .22f, .21f, 1f);
+                fonts[asset.ordinal()] = font;
+            }
+        }
     }
+
+    private static void unload(AssetGroup group) {
+        for (TextureAsset asset : TEXTURE_ASSETS) {
+            if (asset.getGroup() == group) {
+                // Atlas regions go with the atlas
+                if (asset.getFileName() != null) {
+                    textures[asset.ordinal()].getTexture().dispose();
+                }
+                textures[asset.ordinal()] = null;
+            }
+        }
+
+        for (AnimationAsset asset : ANIMATION_ASSETS) {
+            if (asset.getGroup() == group) {
+                animations[asset.ordinal()] = null;
+            }
+        }
+
+        for (FontAsset asset : FONT_ASSETS) {
+            if (asset.getGroup() == group) {
+                fonts[asset.ordinal()].dispose();
+                fonts[asset.ordinal()] = null;
+            }
+        }
+
+        if (group == AssetGroup.GAME) {
+            textureAtlas.dispose();
+            textureAtlas = null;
+        }
+    }
+
+    private static TextureFormatSelector selectTextureFormats(AssetManifest.Atlas atlas) {
+        long opaquePixels = 0;
+        long translucentPixels = 0;
+        for (TextureAsset asset : TEXTURE_ASSETS) {
+            if (asset.getFileName() != null) {
+                AssetManifest.Entry entry = getManifest().getEntry(asset.getFileName());
+                long pixels = (long) entry.width * entry.height;
+                if (asset.getEtc1FileName() != null) {
+                    opaquePixels += pixels;
+                } else {
+                    translucentPixels += pixels;
+                }
+            }
+        }
+        for (String page : atlas.pages) {
+            AssetManifest.Entry entry = getManifest().getEntry(page);
+            translucentPixels += (long) entry.width * entry.height;
+        }
+
+        long budget = GameManager.getInstance().getOptions().getTextureMemoryBudget();
+        TextureFormatSelector selector = new TextureFormatSelector(
+                TextureFormatSelector.isEtc1Supported(), budget, opaquePixels, translucentPixels);
+        Gdx.app.log(LOG_TAG, "Opaque textures " + selector.getOpaqueFormat() + ", translucent " +
+                selector.getTranslucentFormat() + ", " + selector.getBytes() / 1024 + "KB of " +
+                (budget > 0 ? budget / 1024 + "KB" : "unlimited"));
+        return selector;
+    }
+
+    private static TextureAtlas createAtlas(AssetManifest.Atlas atlas, TextureFormat format) {
+        TextureAtlas textureAtlas = new TextureAtlas();
+        Texture[] pages = new Texture[atlas.pages.size];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new Texture(getFile(atlas.pages.get(i)), format.getPixmapFormat(), false);
+            pages[i].setFilter(atlas.minFilter, atlas.magFilter);
+            // The atlas disposes the textures it holds
+            textureAtlas.getTextures().add(pages[i]);
+        }
+        for (AssetManifest.Region region : atlas.regions) {
+            textureAtlas.addRegion(region.name, pages[region.page], region.x, region.y,
+                    region.width, region.height).index = region.index;
+        }
+        return textureAtlas;
+    }
+
+    private static Texture loadTexture(TextureAsset asset) {
+        TextureFormat format = asset.getEtc1FileName() != null ?
+                textureFormats.getOpaqueFormat() : textureFormats.getTranslucentFormat();
+        if (format == TextureFormat.ETC1) {
+            FileHandle etc1File = getFile(asset.getEtc1FileName());
+            if (etc1File != null) {
+                return new Texture(new ETC1TextureData(etc1File, false));
+            }
+            Gdx.app.error(LOG_TAG, "No " + asset.getEtc1FileName() + " in the asset manifest");
+            format = TextureFormat.RGB565;
+        }
+        return new Texture(getFile(asset.getFileName()), format.getPixmapFormat(), false);
+    }
+
+    private static Animation createAnimation(TextureAtlas textureAtlas, String[] regionNames) {
+
+        TextureRegion[] runningFrames = new TextureRegion[regionNames.length];
+
+        for (int i = 0; i < regionNames.length; i++) {
+            String path = regionNames[i];
+            runningFrames[i] = textureAtlas.findRegion(path);
+        }
+
+        return new Animation(0.1f, runningFrames);
+
+    }
+
 }
@@ -20,17 +20,40 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gamestudio24.martianrun.enums.GameSound;
 
+/**
+ * Plays {@link GameSound}s within a fixed budget of {@link #MAX_VOICES} voices, dropping
+ * requests that come faster than each sound's cooldown and cutting the oldest voice when the
+ * budget is spent. Music is opened on a background thread and starts once it's ready. Missing
+ * or broken files are logged and simply stay silent.
+ */
 public class AudioUtils {
 
+    private static final String LOG_TAG = AudioUtils.class.getSimpleName();
+
+    public static final int MAX_VOICES = 4;
+
     private static AudioUtils ourInstance = new AudioUtils();
     private static Music music;
-    private static Sound jumpSound;
-    private static Sound hitSound;
+    private static Sound[] sounds;
+    private static boolean disposed;
 
     private static final String MUSIC_ON_PREFERENCE = "music_on";
     private static final String SOUND_ON_PREFERENCE = "sound_on";
 
+    private boolean musicOn;
+    private boolean soundOn;
+    private long[] lastPlayTimes;
+    // One entry per voice, the sound's ordinal is -1 when the voice is free
+    private int[] voiceSounds;
+    private long[] voiceIds;
+    private long[] voiceStartTimes;
+    private long[] voiceEndTimes;
+
     private AudioUtils() {
     }
 
@@ -38,6 +61,9 @@ public class AudioUtils {
         return ourInstance;
     }
 
+    /**
+     * @return the music, or null while it's loading or if it couldn't be loaded
+     */
     public Music getMusic() {
         return music;
     }
@@ -47,37 +73,153 @@ public class AudioUtils {
     }
 
     public void init() {
-        music = Gdx.audio.newMusic(Gdx.files.internal(Constants.GAME_MUSIC));
-        music.setLooping(true);
-        playMusic();
-        jumpSound = createSound(Constants.RUNNER_JUMPING_SOUND);
-        hitSound = createSound(Constants.RUNNER_HIT_SOUND);
+        if (sounds != null) {
+            return;
+        }
+        musicOn = getPreferences().getBoolean(MUSIC_ON_PREFERENCE, true);
+        soundOn = getPreferences().getBoolean(SOUND_ON_PREFERENCE, true);
+
+        GameSound[] gameSounds = GameSound.values();
+        sounds = new Sound[gameSounds.length];
+        lastPlayTimes = new long[gameSounds.length];
+        for (GameSound gameSound : gameSounds) {
+            sounds[gameSound.ordinal()] = createSound(gameSound.getFileName());
+            lastPlayTimes[gameSound.ordinal()] = Long.MIN_VALUE / 2;
+        }
+
+        voiceSounds = new int[MAX_VOICES];
+        voiceIds = new long[MAX_VOICES];
+        voiceStartTimes = new long[MAX_VOICES];
+        voiceEndTimes = new long[MAX_VOICES];
+        for (int i = 0; i < MAX_VOICES; i++) {
+            voiceSounds[i] = -1;
+        }
+
+        loadMusic();
     }
 
+    /**
+     * @return the sound, or null if the file is missing or can't be decoded
+     */
     public Sound createSound(String soundFileName) {
-        return Gdx.audio.newSound(Gdx.files.internal(soundFileName));
+        FileHandle file = AssetsManager.getFile(soundFileName);
+        if (file == null) {
+            Gdx.app.error(LOG_TAG, "Missing sound " + soundFileName);
+            return null;
+        }
+        try {
+            return Gdx.audio.newSound(file);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error(LOG_TAG, "Can't load sound " + soundFileName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the music stream off the render thread, preparing it can take a while on some
+     * devices, and starts it back on the render thread
+     */
+    private void loadMusic() {
+        final FileHandle file = AssetsManager.getFile(Constants.GAME_MUSIC);
+        if (file == null) {
+            Gdx.app.error(LOG_TAG, "Missing music " + Constants.GAME_MUSIC);
+            return;
+        }
+        Thread loader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Music loadedMusic = Gdx.audio.newMusic(file);
+                    Gdx.app.postRunnable(new Runnable() {
+                        @Override
+                        public void run() {
+                            onMusicLoaded(loadedMusic);
+                        }
+                    });
+                } catch (GdxRuntimeException e) {
+                    Gdx.app.error(LOG_TAG, "Can't load music " + Constants.GAME_MUSIC, e);
+                }
+            }
+        }, "MusicLoader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void onMusicLoaded(Music loadedMusic) {
+        if (disposed) {
+            loadedMusic.dispose();
+            return;
+        }
+        music = loadedMusic;
+        music.setLooping(true);
+        playMusic();
     }
 
     public void playMusic() {
-        boolean musicOn = getPreferences().getBoolean(MUSIC_ON_PREFERENCE, true);
-        if (musicOn) {
+        if (musicOn && music != null) {
             music.play();
         }
     }
 
-    public void playSound(Sound sound) {
-        boolean soundOn = getPreferences().getBoolean(SOUND_ON_PREFERENCE, true);
-        if (soundOn) {
-            sound.play();
+    public void playSound(GameSound gameSound) {
+        if (!soundOn || sounds == null) {
+            return;
+        }
+        int index = gameSound.ordinal();
+        Sound sound = sounds[index];
+        if (sound == null) {
+            return;
+        }
+
+        long now = TimeUtils.nanoTime();
+        if (now - lastPlayTimes[index] < secondsToNanos(gameSound.getCooldown())) {
+            return;
+        }
+
+        long id = sound.play();
+        if (id == -1) {
+            return;
+        }
+        // Only cut a voice once the new sound is actually playing
+        int voice = getVoice(now);
+        if (voiceSounds[voice] != -1 && voiceEndTimes[voice] > now) {
+            sounds[voiceSounds[voice]].stop(voiceIds[voice]);
+        }
+        lastPlayTimes[index] = now;
+        voiceSounds[voice] = index;
+        voiceIds[voice] = id;
+        voiceStartTimes[voice] = now;
+        voiceEndTimes[voice] = now + secondsToNanos(gameSound.getDuration());
+    }
+
+    /**
+     * @return a free voice, or else the one that's been playing the longest
+     */
+    private int getVoice(long now) {
+        int oldest = 0;
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (voiceSounds[i] == -1 || voiceEndTimes[i] <= now) {
+                return i;
+            }
+            if (voiceStartTimes[i] < voiceStartTimes[oldest]) {
+                oldest = i;
+            }
         }
+        return oldest;
+    }
+
+    private static long secondsToNanos(float seconds) {
+        return (long) (seconds * 1000000000L);
     }
 
     public void toggleMusic() {
-        saveBoolean(MUSIC_ON_PREFERENCE, !getPreferences().getBoolean(MUSIC_ON_PREFERENCE, true));
+        musicOn = !musicOn;
+        saveBoolean(MUSIC_ON_PREFERENCE, musicOn);
     }
 
     public void toggleSound() {
-        saveBoolean(SOUND_ON_PREFERENCE, !getPreferences().getBoolean(SOUND_ON_PREFERENCE, true));
+        soundOn = !soundOn;
+        saveBoolean(SOUND_ON_PREFERENCE, soundOn);
     }
 
     private void saveBoolean(String key, boolean value) {
@@ -87,30 +229,35 @@ public class AudioUtils {
     }
 
     public static void dispose() {
-        music.dispose();
-        jumpSound.dispose();
-        hitSound.dispose();
+        disposed = true;
+        if (music != null) {
+            music.dispose();
+        }
+        if (sounds != null) {
+            for (Sound sound : sounds) {
+                if (sound != null) {
+                    sound.dispose();
+                }
+            }
+        }
+    }
+
+    public boolean isMusicPlaying() {
+        return music != null && music.isPlaying();
     }
 
     public void pauseMusic() {
-        music.pause();
+        if (music != null) {
+            music.pause();
+        }
     }
 
     public String getSoundRegionName() {
-        boolean soundOn = getPreferences().getBoolean(SOUND_ON_PREFERENCE, true);
         return soundOn ? Constants.SOUND_ON_REGION_NAME : Constants.SOUND_OFF_REGION_NAME;
     }
 
     public String getMusicRegionName() {
-        boolean musicOn = getPreferences().getBoolean(MUSIC_ON_PREFERENCE, true);
         return musicOn ? Constants.MUSIC_ON_REGION_NAME : Constants.MUSIC_OFF_REGION_NAME;
     }
 
-    public Sound getJumpSound() {
-        return jumpSound;
-    }
-
-    public Sound getHitSound() {
-        return hitSound;
-    }
 }
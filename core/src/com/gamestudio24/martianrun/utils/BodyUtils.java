@@ -16,10 +16,13 @@
 
 package com.gamestudio24.martianrun.utils;
 
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.gamestudio24.martianrun.box2d.UserData;
 import com.gamestudio24.martianrun.enums.UserDataType;
 
+import java.nio.ByteBuffer;
+
 public class BodyUtils {
 
     public static boolean bodyInBounds(Body body) {
@@ -52,4 +55,24 @@ public class BodyUtils {
         return userData != null && userData.getUserDataType() == UserDataType.GROUND;
     }
 
+    /**
+     * Writes the body's transform and velocities so {@link #readState(Body, ByteBuffer)} can put
+     * it back exactly where it was
+     */
+    public static void writeState(Body body, ByteBuffer buffer) {
+        Vector2 position = body.getPosition();
+        Vector2 linearVelocity = body.getLinearVelocity();
+        buffer.putFloat(position.x).putFloat(position.y).putFloat(body.getAngle());
+        buffer.putFloat(linearVelocity.x).putFloat(linearVelocity.y).putFloat(body.getAngularVelocity());
+    }
+
+    public static void readState(Body body, ByteBuffer buffer) {
+        float x = buffer.getFloat();
+        float y = buffer.getFloat();
+        body.setTransform(x, y, buffer.getFloat());
+        float velocityX = buffer.getFloat();
+        body.setLinearVelocity(velocityX, buffer.getFloat());
+        body.setAngularVelocity(buffer.getFloat());
+    }
+
 }
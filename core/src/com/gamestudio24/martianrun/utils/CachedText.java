@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Text wrapped to fixed bounds that is laid out only when it changes. Every other frame just
+ * draws the cached glyph vertices, and numbers are written straight into a char buffer so
+ * nothing is allocated while the game runs.
+ */
+public class CachedText {
+
+    private final BitmapFont font;
+    private final BitmapFontCache cache;
+    private final GlyphLayout layout;
+    private final StringBuilder text;
+    private final Rectangle bounds;
+    private final int align;
+    private boolean dirty;
+
+    public CachedText(BitmapFont font, Rectangle bounds, int align) {
+        this.font = font;
+        this.bounds = bounds;
+        this.align = align;
+        cache = font.newFontCache();
+        layout = new GlyphLayout();
+        text = new StringBuilder();
+    }
+
+    public void setText(CharSequence newText) {
+        if (contentEquals(newText)) {
+            return;
+        }
+        text.setLength(0);
+        text.append(newText);
+        dirty = true;
+    }
+
+    public void setNumber(int number) {
+        text.setLength(0);
+        text.append(number);
+        dirty = true;
+    }
+
+    public void draw(Batch batch) {
+        if (dirty) {
+            layout.setText(font, text, 0, text.length(), font.getColor(), bounds.width, align, true,
+                    null);
+            cache.setText(layout, bounds.x, bounds.y);
+            dirty = false;
+        }
+        cache.draw(batch);
+    }
+
+    private boolean contentEquals(CharSequence other) {
+        if (other.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            if (other.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -44,6 +44,8 @@ public class Constants {
     public static final float RUNNER_DODGE_Y = 1.5f;
     public static final Vector2 RUNNER_JUMPING_LINEAR_IMPULSE = new Vector2(0, 13f);
     public static final float RUNNER_HIT_ANGULAR_IMPULSE = 10f;
+    public static final float RUNNER_JUMP_BUFFER_TIME = 0.1f;
+    public static final float RUNNER_COYOTE_TIME = 0.08f;
 
     public static final float ENEMY_X = 25f;
     public static final float ENEMY_DENSITY = RUNNER_DENSITY;
@@ -67,7 +69,9 @@ public class Constants {
 
     public static final String BACKGROUND_IMAGE_PATH = "background.png";
     public static final String GROUND_IMAGE_PATH = "ground.png";
-    public static final String SPRITES_ATLAS_PATH = "sprites.txt";
+    public static final String BACKGROUND_ETC1_PATH = "background.etc1";
+    public static final String GROUND_ETC1_PATH = "ground.etc1";
+    public static final String SPRITES_ATLAS_NAME = "sprites";
     public static final String[] RUNNER_RUNNING_REGION_NAMES = new String[] {"alienBeige_run1", "alienBeige_run2"};
     public static final String RUNNER_DODGING_REGION_NAME = "alienBeige_dodge";
     public static final String RUNNER_HIT_REGION_NAME = "alienBeige_hit";
@@ -105,6 +109,10 @@ public class Constants {
 
     public static final String FONT_NAME = "roboto_bold.ttf";
 
+    public static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    public static final String GHOST_FILE_NAME = "ghost.bin";
+    public static final String TELEMETRY_DIRECTORY = "telemetry";
+
     public static final String ABOUT_TEXT = "Developed by: @gamestudio24\nPowered by: " +
             "@libgdx\nGraphics: @kenneywings\nMusic: @kmacleod";
     public static final String SHARE_MESSAGE_PREFIX = "Check out " + GAME_NAME + " %s";
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+import com.gamestudio24.martianrun.box2d.UserData;
+import com.gamestudio24.martianrun.components.AnimationComponent;
+import com.gamestudio24.martianrun.components.BodyComponent;
+import com.gamestudio24.martianrun.components.GhostComponent;
+import com.gamestudio24.martianrun.components.Mappers;
+import com.gamestudio24.martianrun.components.RunnerComponent;
+import com.gamestudio24.martianrun.components.ScrollComponent;
+import com.gamestudio24.martianrun.components.TextureComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+import com.gamestudio24.martianrun.enums.AnimationAsset;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.enums.TextureAsset;
+import com.gamestudio24.martianrun.systems.AnimationSystem;
+import com.gamestudio24.martianrun.systems.PhysicsSyncSystem;
+import com.gamestudio24.martianrun.systems.RunnerSystem;
+
+/**
+ * Creates the entities the game world is drawn with, {@link WorldUtils} creates their bodies
+ */
+public class EntityUtils {
+
+    private static final float BACKGROUND_SPEED = 100;
+    private static final float GROUND_SPEED = 10 * Constants.WORLD_TO_SCREEN;
+    // Sprites are drawn a little wider than their bodies
+    private static final float CHARACTER_WIDTH_PADDING = 0.1f;
+    private static final float ENEMY_HEIGHT_SCALE = 1.1f;
+    private static final float GHOST_ALPHA = 0.4f;
+
+    public static void createBackground(Engine engine) {
+        TextureRegion region = AssetsManager.getTextureRegion(TextureAsset.BACKGROUND);
+        Rectangle bounds = new Rectangle(-Constants.APP_WIDTH / 2, 0, Constants.APP_WIDTH,
+                Constants.APP_HEIGHT);
+        createTiles(engine, region, bounds, TextureComponent.LAYER_BACKGROUND, BACKGROUND_SPEED);
+    }
+
+    public static void createGround(Engine engine, Body body) {
+        TextureRegion region = AssetsManager.getTextureRegion(TextureAsset.GROUND);
+        TransformComponent transform = new TransformComponent();
+        PhysicsSyncSystem.sync(body, transform);
+        Rectangle bounds = transform.bounds;
+        bounds.x = -bounds.width / 2;
+        createTiles(engine, region, bounds, TextureComponent.LAYER_GROUND, GROUND_SPEED);
+    }
+
+    public static Entity createRunner(Engine engine, Body body) {
+        Entity entity = createCharacter(body);
+        setUpRunner(engine, entity).userData = (RunnerUserData) body.getUserData();
+        RunnerSystem.updatePose(entity);
+
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * A runner that follows the published render state, its pose flags are set by
+     * {@link com.gamestudio24.martianrun.systems.RenderStateSystem}
+     */
+    public static Entity createRunner(Engine engine, int id) {
+        Entity entity = createCharacter(id);
+        setUpRunner(engine, entity);
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * A translucent runner replaying the recording, drawn with the runner's textures behind the
+     * characters added after it. It has no body, {@link com.gamestudio24.martianrun.systems.GhostSystem}
+     * moves it.
+     */
+    public static Entity createGhost(Engine engine, GhostRecording recording) {
+        Entity entity = new Entity();
+
+        TransformComponent transform = new TransformComponent();
+        // Until the recording covers the current step
+        transform.visible = false;
+        entity.add(transform);
+
+        TextureComponent texture = new TextureComponent();
+        texture.layer = TextureComponent.LAYER_CHARACTERS;
+        texture.alpha = GHOST_ALPHA;
+        entity.add(texture);
+
+        GhostComponent ghost = new GhostComponent();
+        ghost.recording = recording;
+        entity.add(ghost);
+
+        setUpRunner(engine, entity);
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    public static Entity createEnemy(Engine engine, Body body) {
+        Entity entity = createCharacter(body);
+        setUpEnemy(engine, entity, ((EnemyUserData) body.getUserData()).getEnemyType());
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * An enemy that follows the published render state
+     */
+    public static Entity createEnemy(Engine engine, int id, EnemyType enemyType) {
+        Entity entity = createCharacter(id);
+        setUpEnemy(engine, entity, enemyType);
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    private static RunnerComponent setUpRunner(Engine engine, Entity entity) {
+        entity.getComponent(TextureComponent.class).widthPadding = CHARACTER_WIDTH_PADDING;
+
+        RunnerComponent runner = new RunnerComponent();
+        runner.jumpingTexture = AssetsManager.getTextureRegion(TextureAsset.RUNNER_JUMPING);
+        runner.dodgingTexture = AssetsManager.getTextureRegion(TextureAsset.RUNNER_DODGING);
+        runner.hitTexture = AssetsManager.getTextureRegion(TextureAsset.RUNNER_HIT);
+        entity.add(runner);
+
+        entity.add(createAnimation(engine, entity, AnimationAsset.RUNNER_RUNNING));
+        return runner;
+    }
+
+    private static void setUpEnemy(Engine engine, Entity entity, EnemyType enemyType) {
+        TextureComponent texture = entity.getComponent(TextureComponent.class);
+        texture.widthPadding = CHARACTER_WIDTH_PADDING;
+        texture.heightScale = ENEMY_HEIGHT_SCALE;
+
+        entity.add(createAnimation(engine, entity, enemyType.getAnimationAsset()));
+    }
+
+    private static Entity createCharacter(Body body) {
+        Entity entity = createCharacter(((UserData) body.getUserData()).getId());
+        Mappers.body.get(entity).body = body;
+
+        // Bodies restored from a snapshot are drawn while paused, before the first update
+        PhysicsSyncSystem.sync(body, Mappers.transform.get(entity));
+        return entity;
+    }
+
+    private static Entity createCharacter(int id) {
+        Entity entity = new Entity();
+
+        BodyComponent bodyComponent = new BodyComponent();
+        bodyComponent.id = id;
+        entity.add(bodyComponent);
+
+        entity.add(new TransformComponent());
+
+        TextureComponent texture = new TextureComponent();
+        texture.layer = TextureComponent.LAYER_CHARACTERS;
+        entity.add(texture);
+        return entity;
+    }
+
+    /**
+     * Starts the texture on the current frame, restored characters are drawn before their first
+     * update
+     */
+    private static AnimationComponent createAnimation(Engine engine, Entity entity,
+                                                      AnimationAsset asset) {
+        AnimationSystem animationSystem = engine.getSystem(AnimationSystem.class);
+        AnimationComponent animation = new AnimationComponent();
+        animation.animation = animationSystem.share(asset);
+        entity.getComponent(TextureComponent.class).region = animation.animation.getKeyFrame(
+                animationSystem.getTime());
+        return animation;
+    }
+
+    /**
+     * Two tiles side by side, the first one starting at bounds
+     */
+    private static void createTiles(Engine engine, TextureRegion region, Rectangle bounds,
+                                    int layer, float speed) {
+        for (int i = 0; i < 2; i++) {
+            Entity entity = new Entity();
+
+            TransformComponent transform = new TransformComponent();
+            transform.bounds.set(bounds);
+            transform.bounds.x += bounds.width * i;
+            entity.add(transform);
+
+            TextureComponent texture = new TextureComponent();
+            texture.region = region;
+            texture.layer = layer;
+            entity.add(texture);
+
+            ScrollComponent scroll = new ScrollComponent();
+            scroll.speed = speed;
+            scroll.wrapWidth = bounds.width * 2;
+            entity.add(scroll);
+
+            engine.addEntity(entity);
+        }
+    }
+
+}
@@ -18,8 +18,11 @@ package com.gamestudio24.martianrun.utils;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.SnapshotArray;
 import com.gamestudio24.martianrun.enums.Difficulty;
 import com.gamestudio24.martianrun.enums.GameState;
+import com.gamestudio24.martianrun.telemetry.ListenerCall;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
 
 /**
  * A utility singleton that holds the current {@link Difficulty}
@@ -38,6 +41,8 @@ public class GameManager implements GameEventListener {
     private GameState gameState;
     private Difficulty difficulty;
     private GameEventListener gameEventListener;
+    private GameOptions options;
+    private final SnapshotArray<GameStateListener> gameStateListeners;
 
     public static GameManager getInstance() {
         return ourInstance;
@@ -45,14 +50,46 @@ public class GameManager implements GameEventListener {
 
     private GameManager() {
         gameState = GameState.OVER;
+        options = new GameOptions();
+        gameStateListeners = new SnapshotArray<GameStateListener>(GameStateListener.class);
     }
 
     public GameState getGameState() {
         return gameState;
     }
 
+    /**
+     * Moves to the given state and notifies every {@link GameStateListener}. Setting the current
+     * state again does nothing.
+     *
+     * @throws IllegalStateException if the current state can't change to the given one
+     */
     public void setGameState(GameState gameState) {
+        if (gameState == this.gameState) {
+            return;
+        }
+        if (!this.gameState.canChangeTo(gameState)) {
+            throw new IllegalStateException("Can't go from " + this.gameState + " to " + gameState);
+        }
+        GameState previousState = this.gameState;
         this.gameState = gameState;
+
+        // Listeners can remove themselves, i.e. actors removed from the stage
+        GameStateListener[] listeners = gameStateListeners.begin();
+        for (int i = 0, n = gameStateListeners.size; i < n; i++) {
+            listeners[i].onGameStateChanged(previousState, gameState);
+        }
+        gameStateListeners.end();
+    }
+
+    public void addGameStateListener(GameStateListener listener) {
+        if (!gameStateListeners.contains(listener, true)) {
+            gameStateListeners.add(listener);
+        }
+    }
+
+    public void removeGameStateListener(GameStateListener listener) {
+        gameStateListeners.removeValue(listener, true);
     }
 
     public Difficulty getDifficulty() {
@@ -75,14 +112,26 @@ public class GameManager implements GameEventListener {
         this.gameEventListener = gameEventListener;
     }
 
+    public GameOptions getOptions() {
+        return options;
+    }
+
+    public void setOptions(GameOptions options) {
+        this.options = options;
+    }
+
     @Override
     public void displayAd() {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.displayAd();
+        Telemetry.getInstance().endCall(ListenerCall.DISPLAY_AD, startTime);
     }
 
     @Override
     public void hideAd() {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.hideAd();
+        Telemetry.getInstance().endCall(ListenerCall.HIDE_AD, startTime);
     }
 
     /**
@@ -90,7 +139,9 @@ public class GameManager implements GameEventListener {
      */
     @Override
     public void submitScore(int score) {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.submitScore(score);
+        Telemetry.getInstance().endCall(ListenerCall.SUBMIT_SCORE, startTime);
 
         if (score > 5000 && !isAchievementUnlocked(get5kClubAchievementId())) {
             unlockAchievement(get5kClubAchievementId());
@@ -111,27 +162,37 @@ public class GameManager implements GameEventListener {
 
     @Override
     public void displayLeaderboard() {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.displayLeaderboard();
+        Telemetry.getInstance().endCall(ListenerCall.DISPLAY_LEADERBOARD, startTime);
     }
 
     @Override
     public void displayAchievements() {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.displayAchievements();
+        Telemetry.getInstance().endCall(ListenerCall.DISPLAY_ACHIEVEMENTS, startTime);
     }
 
     @Override
     public void share() {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.share();
+        Telemetry.getInstance().endCall(ListenerCall.SHARE, startTime);
     }
 
     @Override
     public void unlockAchievement(String id) {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.unlockAchievement(id);
+        Telemetry.getInstance().endCall(ListenerCall.UNLOCK_ACHIEVEMENT, startTime);
     }
 
     @Override
     public void incrementAchievement(String id, int steps) {
+        long startTime = Telemetry.getInstance().startCall();
         gameEventListener.incrementAchievement(id, steps);
+        Telemetry.getInstance().endCall(ListenerCall.INCREMENT_ACHIEVEMENT, startTime);
     }
 
     @Override
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+/**
+ * Launch options shared by every launcher. Desktop launchers build them from command line flags
+ * with {@link #parse(String[])}, the defaults are what the released game uses.
+ */
+public class GameOptions {
+
+    private boolean autopilot;
+    private float reactionTime = 0.2f;
+    private float reactionJitter = 0.05f;
+    private boolean seeded;
+    private long seed;
+    private boolean headless;
+    private int maxFrames;
+    private String metricsFile;
+    private float jumpBufferTime = Constants.RUNNER_JUMP_BUFFER_TIME;
+    private float coyoteTime = Constants.RUNNER_COYOTE_TIME;
+    private float renderScale = 1f;
+    private boolean dynamicResolution;
+    private long textureMemoryBudget;
+    private boolean physicsThread;
+    private boolean ghost = true;
+    private boolean telemetry = true;
+
+    /**
+     * Understands --autopilot, --reaction-ms=200, --reaction-jitter-ms=50, --seed=42,
+     * --max-frames=36000, --metrics=metrics.txt, --jump-buffer-ms=100, --coyote-ms=80,
+     * --render-scale=0.75, --dynamic-resolution, --texture-budget-kb=2048, --physics-thread,
+     * --no-ghost and --no-telemetry.
+     * Unknown flags are ignored so each launcher can add its own.
+     */
+    public static GameOptions parse(String[] args) {
+        GameOptions options = new GameOptions();
+        for (String arg : args) {
+            if (arg.equals("--autopilot")) {
+                options.autopilot = true;
+            } else if (arg.startsWith("--reaction-ms=")) {
+                options.reactionTime = getIntValue(arg) / 1000f;
+            } else if (arg.startsWith("--reaction-jitter-ms=")) {
+                options.reactionJitter = getIntValue(arg) / 1000f;
+            } else if (arg.startsWith("--seed=")) {
+                options.setSeed(Long.parseLong(getValue(arg)));
+            } else if (arg.startsWith("--max-frames=")) {
+                options.maxFrames = getIntValue(arg);
+            } else if (arg.startsWith("--metrics=")) {
+                options.metricsFile = getValue(arg);
+            } else if (arg.startsWith("--jump-buffer-ms=")) {
+                options.jumpBufferTime = getIntValue(arg) / 1000f;
+            } else if (arg.startsWith("--coyote-ms=")) {
+                options.coyoteTime = getIntValue(arg) / 1000f;
+            } else if (arg.startsWith("--render-scale=")) {
+                options.renderScale = Float.parseFloat(getValue(arg));
+            } else if (arg.equals("--dynamic-resolution")) {
+                options.dynamicResolution = true;
+            } else if (arg.startsWith("--texture-budget-kb=")) {
+                options.textureMemoryBudget = getIntValue(arg) * 1024L;
+            } else if (arg.equals("--physics-thread")) {
+                options.physicsThread = true;
+            } else if (arg.equals("--no-ghost")) {
+                options.ghost = false;
+            } else if (arg.equals("--no-telemetry")) {
+                options.telemetry = false;
+            }
+        }
+        return options;
+    }
+
+    private static String getValue(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    private static int getIntValue(String arg) {
+        return Integer.parseInt(getValue(arg));
+    }
+
+    /**
+     * @return true if {@link com.gamestudio24.martianrun.ai.AutopilotBot} plays instead of the user
+     */
+    public boolean isAutopilot() {
+        return autopilot;
+    }
+
+    public void setAutopilot(boolean autopilot) {
+        this.autopilot = autopilot;
+    }
+
+    /**
+     * @return seconds between the autopilot seeing a threat and reacting to it
+     */
+    public float getReactionTime() {
+        return reactionTime;
+    }
+
+    public void setReactionTime(float reactionTime) {
+        this.reactionTime = reactionTime;
+    }
+
+    /**
+     * @return maximum random deviation, in seconds, from {@link #getReactionTime()}
+     */
+    public float getReactionJitter() {
+        return reactionJitter;
+    }
+
+    public void setReactionJitter(float reactionJitter) {
+        this.reactionJitter = reactionJitter;
+    }
+
+    /**
+     * @return true if a seed was given, otherwise {@link RandomUtils} seeds itself from the clock
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        seeded = true;
+    }
+
+    /**
+     * @return true when there's no display or audio: only the simulation runs, nothing is
+     * loaded or drawn
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * @return how many frames a headless run lasts, 0 to keep going until the process is killed
+     */
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public void setMaxFrames(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * @return where a headless run writes its metrics when it ends, or null to only log them
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * @return seconds a jump pressed in the air is remembered until the runner lands
+     */
+    public float getJumpBufferTime() {
+        return jumpBufferTime;
+    }
+
+    public void setJumpBufferTime(float jumpBufferTime) {
+        this.jumpBufferTime = jumpBufferTime;
+    }
+
+    /**
+     * @return seconds the runner can still jump after leaving the ground without jumping
+     */
+    public float getCoyoteTime() {
+        return coyoteTime;
+    }
+
+    public void setCoyoteTime(float coyoteTime) {
+        this.coyoteTime = coyoteTime;
+    }
+
+    /**
+     * @return fraction of the screen resolution the game world renders at, the HUD is always
+     * native. Clamped to [{@link ResolutionScaler#MIN_SCALE}, 1].
+     */
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    public void setRenderScale(float renderScale) {
+        this.renderScale = renderScale;
+    }
+
+    /**
+     * @return true to lower {@link #getRenderScale()} while frames are slow and raise it back
+     * when there's headroom
+     */
+    public boolean isDynamicResolution() {
+        return dynamicResolution;
+    }
+
+    public void setDynamicResolution(boolean dynamicResolution) {
+        this.dynamicResolution = dynamicResolution;
+    }
+
+    /**
+     * @return bytes of texture memory {@link TextureFormatSelector} tries to stay under, 0 for
+     * no limit
+     */
+    public long getTextureMemoryBudget() {
+        return textureMemoryBudget;
+    }
+
+    public void setTextureMemoryBudget(long textureMemoryBudget) {
+        this.textureMemoryBudget = textureMemoryBudget;
+    }
+
+    /**
+     * @return true to step the simulation on its own thread, see
+     * {@link com.gamestudio24.martianrun.simulation.SimulationThread}
+     */
+    public boolean isPhysicsThread() {
+        return physicsThread;
+    }
+
+    public void setPhysicsThread(boolean physicsThread) {
+        this.physicsThread = physicsThread;
+    }
+
+    /**
+     * @return true to race a ghost of the best run, see {@link GhostRecording}
+     */
+    public boolean isGhost() {
+        return ghost;
+    }
+
+    public void setGhost(boolean ghost) {
+        this.ghost = ghost;
+    }
+
+    /**
+     * @return true to log how runs go, see {@link com.gamestudio24.martianrun.telemetry.Telemetry}
+     */
+    public boolean isTelemetry() {
+        return telemetry;
+    }
+
+    public void setTelemetry(boolean telemetry) {
+        this.telemetry = telemetry;
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.gamestudio24.martianrun.components.RunnerComponent;
+import com.gamestudio24.martianrun.components.TransformComponent;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The runner's drawn pose over a run, as keyframes taken every {@link #KEYFRAME_STEPS}
+ * simulation steps and whenever the pose changes. Playback interpolates between them, with the
+ * simulation step as the clock, so it looks the same at any frame rate and allocates nothing.
+ */
+public class GhostRecording {
+
+    // A keyframe every 50ms, jumps are smooth enough with linear interpolation
+    public static final int KEYFRAME_STEPS = 15;
+
+    private static final int VERSION = 1;
+    // Close to an hour, the rest of longer runs isn't kept
+    private static final int MAX_KEYFRAMES = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int HEADER_BYTES = 20;
+    private static final int KEYFRAME_BYTES = 17;
+    private static final byte JUMPING_FLAG = 1;
+    private static final byte DODGING_FLAG = 1 << 1;
+    private static final byte HIT_FLAG = 1 << 2;
+
+    private int count;
+    private int[] steps;
+    private float[] xs;
+    private float[] ys;
+    private float[] rotations;
+    private byte[] poses;
+    private float width;
+    private float height;
+    private int score;
+    // Keyframe the last sample started from, playback only moves forward between runs
+    private int cursor;
+
+    public GhostRecording() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public void clear() {
+        count = 0;
+        cursor = 0;
+        score = 0;
+    }
+
+    /**
+     * Adds a keyframe if the pose changed or enough steps went by since the last one
+     */
+    public void record(long step, TransformComponent transform, RunnerComponent runner) {
+        byte pose = getPose(runner);
+        if (count > 0) {
+            int last = count - 1;
+            if (step <= steps[last] || (step - steps[last] < KEYFRAME_STEPS && pose == poses[last])) {
+                return;
+            }
+        }
+        if (count == MAX_KEYFRAMES) {
+            return;
+        }
+        if (count == steps.length) {
+            grow();
+        }
+        steps[count] = (int) step;
+        xs[count] = transform.bounds.x;
+        ys[count] = transform.bounds.y;
+        rotations[count] = transform.rotation;
+        poses[count] = pose;
+        width = transform.bounds.width;
+        height = transform.bounds.height;
+        count++;
+    }
+
+    /**
+     * Poses a ghost as the runner was at the given step
+     *
+     * @return false if the recording doesn't cover that step
+     */
+    public boolean sample(long step, TransformComponent transform, RunnerComponent runner) {
+        if (count == 0 || step < steps[0] || step > steps[count - 1]) {
+            return false;
+        }
+        if (steps[cursor] > step) {
+            cursor = 0;
+        }
+        while (cursor < count - 1 && steps[cursor + 1] <= step) {
+            cursor++;
+        }
+
+        int next = Math.min(cursor + 1, count - 1);
+        float alpha = next == cursor ? 0f
+                : (step - steps[cursor]) / (float) (steps[next] - steps[cursor]);
+        transform.bounds.set(xs[cursor] + (xs[next] - xs[cursor]) * alpha,
+                ys[cursor] + (ys[next] - ys[cursor]) * alpha, width, height);
+        transform.rotation = rotations[cursor] + (rotations[next] - rotations[cursor]) * alpha;
+
+        byte pose = poses[cursor];
+        runner.jumping = (pose & JUMPING_FLAG) != 0;
+        runner.dodging = (pose & DODGING_FLAG) != 0;
+        runner.hit = (pose & HIT_FLAG) != 0;
+        return true;
+    }
+
+    private static byte getPose(RunnerComponent runner) {
+        byte pose = 0;
+        if (runner.jumping) {
+            pose |= JUMPING_FLAG;
+        }
+        if (runner.dodging) {
+            pose |= DODGING_FLAG;
+        }
+        if (runner.hit) {
+            pose |= HIT_FLAG;
+        }
+        return pose;
+    }
+
+    /**
+     * Takes the other recording's keyframes and gives it this one's, without copying
+     */
+    public void swap(GhostRecording other) {
+        int[] otherSteps = other.steps;
+        float[] otherXs = other.xs;
+        float[] otherYs = other.ys;
+        float[] otherRotations = other.rotations;
+        byte[] otherPoses = other.poses;
+        int otherCount = other.count;
+        float otherWidth = other.width;
+        float otherHeight = other.height;
+        int otherScore = other.score;
+
+        other.steps = steps;
+        other.xs = xs;
+        other.ys = ys;
+        other.rotations = rotations;
+        other.poses = poses;
+        other.count = count;
+        other.width = width;
+        other.height = height;
+        other.score = score;
+        other.cursor = 0;
+
+        steps = otherSteps;
+        xs = otherXs;
+        ys = otherYs;
+        rotations = otherRotations;
+        poses = otherPoses;
+        count = otherCount;
+        width = otherWidth;
+        height = otherHeight;
+        score = otherScore;
+        cursor = 0;
+    }
+
+    public int getByteSize() {
+        return HEADER_BYTES + count * KEYFRAME_BYTES;
+    }
+
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(VERSION);
+        buffer.putInt(score);
+        buffer.putFloat(width);
+        buffer.putFloat(height);
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(steps[i]);
+            buffer.putFloat(xs[i]);
+            buffer.putFloat(ys[i]);
+            buffer.putFloat(rotations[i]);
+            buffer.put(poses[i]);
+        }
+    }
+
+    /**
+     * @return false if the buffer doesn't hold a recording of this version, which is then empty
+     */
+    public boolean read(ByteBuffer buffer) {
+        clear();
+        try {
+            if (buffer.getInt() != VERSION) {
+                return false;
+            }
+            int readScore = buffer.getInt();
+            width = buffer.getFloat();
+            height = buffer.getFloat();
+            int readCount = buffer.getInt();
+            if (readCount < 0 || readCount > MAX_KEYFRAMES) {
+                return false;
+            }
+            if (readCount > steps.length) {
+                allocate(readCount);
+            }
+            for (int i = 0; i < readCount; i++) {
+                steps[i] = buffer.getInt();
+                xs[i] = buffer.getFloat();
+                ys[i] = buffer.getFloat();
+                rotations[i] = buffer.getFloat();
+                poses[i] = buffer.get();
+            }
+            count = readCount;
+            score = readScore;
+            return true;
+        } catch (BufferUnderflowException e) {
+            clear();
+            return false;
+        }
+    }
+
+    private void allocate(int capacity) {
+        steps = new int[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        rotations = new float[capacity];
+        poses = new byte[capacity];
+    }
+
+    /**
+     * Only while recording, playback never allocates
+     */
+    private void grow() {
+        int[] oldSteps = steps;
+        float[] oldXs = xs;
+        float[] oldYs = ys;
+        float[] oldRotations = rotations;
+        byte[] oldPoses = poses;
+        allocate(Math.min(steps.length * 2, MAX_KEYFRAMES));
+        System.arraycopy(oldSteps, 0, steps, 0, count);
+        System.arraycopy(oldXs, 0, xs, 0, count);
+        System.arraycopy(oldYs, 0, ys, 0, count);
+        System.arraycopy(oldRotations, 0, rotations, 0, count);
+        System.arraycopy(oldPoses, 0, poses, 0, count);
+    }
+
+    /**
+     * @return number of keyframes
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the run's final score, 0 until it's set at the end of the run
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the best run's {@link GhostRecording} in the app's private storage
+ */
+public class GhostUtils {
+
+    public static void save(GhostRecording recording) {
+        ByteBuffer buffer = ByteBuffer.allocate(recording.getByteSize());
+        recording.write(buffer);
+        getGhostFile().writeBytes(buffer.array(), false);
+    }
+
+    /**
+     * @return false if there was no readable recording, recording is then empty
+     */
+    public static boolean load(GhostRecording recording) {
+        FileHandle file = getGhostFile();
+        if (!file.exists()) {
+            recording.clear();
+            return false;
+        }
+        if (!recording.read(ByteBuffer.wrap(file.readBytes()))) {
+            Gdx.app.error(GhostUtils.class.getSimpleName(), "Discarding unreadable ghost");
+            file.delete();
+            return false;
+        }
+        return true;
+    }
+
+    private static FileHandle getGhostFile() {
+        return Gdx.files.local(Constants.GHOST_FILE_NAME);
+    }
+
+}
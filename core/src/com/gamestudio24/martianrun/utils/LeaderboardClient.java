@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.HttpParametersUtils;
+import com.badlogic.gdx.net.HttpRequestBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Talks to the leaderboard server in the server module so platforms without Google Play Game
+ * Services can still submit and look up scores
+ */
+public class LeaderboardClient {
+
+    private static final String LOG_TAG = LeaderboardClient.class.getSimpleName();
+
+    private final String baseUrl;
+    private final String player;
+
+    public LeaderboardClient(String baseUrl, String player) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.player = player;
+    }
+
+    public void submitScore(int score) {
+        Net.HttpRequest request = new HttpRequestBuilder().newRequest()
+                .method(Net.HttpMethods.POST)
+                .url(baseUrl + "/submit")
+                .content(player + " " + score + "\n")
+                .build();
+        Gdx.net.sendHttpRequest(request, new LoggingResponseListener("submitScore"));
+    }
+
+    /**
+     * Logs the top scores of the given period ("daily", "weekly" or "all_time")
+     */
+    public void logTopScores(String period, int count) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("period", period);
+        parameters.put("count", String.valueOf(count));
+        Net.HttpRequest request = new HttpRequestBuilder().newRequest()
+                .method(Net.HttpMethods.GET)
+                .url(baseUrl + "/top?" + HttpParametersUtils.convertHttpParameters(parameters))
+                .build();
+        Gdx.net.sendHttpRequest(request, new LoggingResponseListener("top " + period));
+    }
+
+    private static class LoggingResponseListener implements Net.HttpResponseListener {
+
+        private final String name;
+
+        public LoggingResponseListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void handleHttpResponse(Net.HttpResponse httpResponse) {
+            Gdx.app.log(LOG_TAG, name + ": " + httpResponse.getStatus().getStatusCode() + "\n"
+                    + httpResponse.getResultAsString());
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            Gdx.app.error(LOG_TAG, name + " failed", t);
+        }
+
+        @Override
+        public void cancelled() {
+            Gdx.app.log(LOG_TAG, name + " cancelled");
+        }
+
+    }
+
+}
@@ -18,36 +18,65 @@ package com.gamestudio24.martianrun.utils;
 
 import com.gamestudio24.martianrun.enums.EnemyType;
 
-import java.util.Random;
-
+/**
+ * The game's random streams. Everything is derived from a single seed so a run can be
+ * reproduced with {@link #setSeed(long)}, and each subsystem draws from its own split stream so
+ * adding a draw in one doesn't shift the sequence of another.
+ */
 public class RandomUtils {
 
+    private static final AliasTable<EnemyType> ENEMY_TYPES = createEnemyTypeTable();
+
+    private static long seed;
+    private static GameRandom root;
+    private static GameRandom spawnRandom;
+
+    static {
+        setSeed(System.nanoTime());
+    }
+
     /**
-     * @return a random {@link EnemyType}
+     * Resets every stream so they replay the same sequences for the same seed
      */
-    public static EnemyType getRandomEnemyType() {
-        RandomEnum<EnemyType> randomEnum = new RandomEnum<EnemyType>(EnemyType.class);
-        return randomEnum.random();
+    public static void setSeed(long seed) {
+        RandomUtils.seed = seed;
+        root = new GameRandom(seed);
+        spawnRandom = root.split();
+    }
+
+    public static long getSeed() {
+        return seed;
     }
 
     /**
-     * @see <a href="http://stackoverflow.com/a/1973018">Stack Overflow</a>
+     * @return the stream used to pick which enemy comes next
      */
-    private static class RandomEnum<E extends Enum> {
+    public static GameRandom getSpawnRandom() {
+        return spawnRandom;
+    }
 
-        private static final Random RND = new Random();
-        private final E[] values;
+    /**
+     * @return a new stream derived from the seed, for subsystems that need their own
+     * reproducible sequence such as bots
+     */
+    public static GameRandom newStream() {
+        return root.split();
+    }
 
-        public RandomEnum(Class<E> token) {
-            values = token.getEnumConstants();
-        }
+    /**
+     * @return a random {@link EnemyType}, weighted by {@link EnemyType#getSpawnWeight()}
+     */
+    public static EnemyType getRandomEnemyType(GameRandom random) {
+        return ENEMY_TYPES.sample(random);
+    }
 
-        /**
-         * @return a random value for the given enum
-         */
-        public E random() {
-            return values[RND.nextInt(values.length)];
+    private static AliasTable<EnemyType> createEnemyTypeTable() {
+        EnemyType[] enemyTypes = EnemyType.values();
+        float[] weights = new float[enemyTypes.length];
+        for (int i = 0; i < enemyTypes.length; i++) {
+            weights[i] = enemyTypes[i].getSpawnWeight();
         }
+        return new AliasTable<EnemyType>(enemyTypes, weights);
     }
 
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Renders part of a frame into a smaller {@link FrameBuffer} and stretches it to the screen in
+ * a single draw. At a scale of 1 there's no frame buffer and everything renders natively.
+ * <p/>
+ * When dynamic, the scale steps down while frames run slower than {@link #SLOW_FRAME_TIME} and
+ * back up after frames have been fast for a while. Going up only to drop again right away
+ * doubles how long it waits before the next try, so it settles instead of oscillating.
+ */
+public class ResolutionScaler implements Disposable {
+
+    private static final String TAG = ResolutionScaler.class.getSimpleName();
+
+    public static final float MIN_SCALE = 0.5f;
+    private static final float SCALE_STEP = 0.125f;
+    private static final int SAMPLE_FRAMES = 30;
+    private static final float SLOW_FRAME_TIME = 1 / 55f;
+    private static final float FAST_FRAME_TIME = 1 / 58f;
+    private static final float RAISE_DELAY = 5f;
+    private static final float MAX_RAISE_DELAY = 80f;
+
+    private final boolean dynamic;
+    private float scale;
+    private int width;
+    private int height;
+    private FrameBuffer frameBuffer;
+    private TextureRegion sceneRegion;
+
+    private float sampledTime;
+    private int sampledFrames;
+    private float fastTime;
+    private float raiseDelay = RAISE_DELAY;
+    private boolean raised;
+
+    public ResolutionScaler(float scale, boolean dynamic) {
+        this.scale = clampScale(scale);
+        this.dynamic = dynamic;
+    }
+
+    /**
+     * @param width  back buffer width in pixels
+     * @param height back buffer height in pixels
+     */
+    public void resize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        createFrameBuffer();
+    }
+
+    /**
+     * Feeds the frame time to the dynamic scaling, call it once per frame
+     */
+    public void update(float delta) {
+        if (!dynamic) {
+            return;
+        }
+
+        sampledTime += delta;
+        sampledFrames++;
+        if (sampledFrames < SAMPLE_FRAMES) {
+            return;
+        }
+
+        float frameTime = sampledTime / sampledFrames;
+        boolean justRaised = raised;
+        raised = false;
+
+        if (frameTime > SLOW_FRAME_TIME) {
+            fastTime = 0;
+            if (scale > MIN_SCALE) {
+                if (justRaised) {
+                    raiseDelay = Math.min(raiseDelay * 2, MAX_RAISE_DELAY);
+                }
+                setScale(scale - SCALE_STEP);
+            }
+        } else if (frameTime < FAST_FRAME_TIME && scale < 1f) {
+            fastTime += sampledTime;
+            if (fastTime >= raiseDelay) {
+                fastTime = 0;
+                raised = true;
+                setScale(scale + SCALE_STEP);
+            }
+        } else {
+            fastTime = 0;
+        }
+
+        sampledTime = 0;
+        sampledFrames = 0;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public void setScale(float scale) {
+        scale = clampScale(scale);
+        if (scale == this.scale) {
+            return;
+        }
+        this.scale = scale;
+        createFrameBuffer();
+    }
+
+    /**
+     * @return true if drawing between {@link #begin(Batch)} and {@link #end(Batch, Viewport)}
+     * goes through the frame buffer
+     */
+    public boolean isActive() {
+        return frameBuffer != null;
+    }
+
+    /**
+     * Redirects everything drawn with the batch, which must be drawing, into the frame buffer
+     */
+    public void begin(Batch batch) {
+        batch.end();
+        frameBuffer.begin();
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.begin();
+    }
+
+    /**
+     * Goes back to the screen and draws the frame buffer over the whole viewport. The batch is
+     * still drawing afterwards.
+     */
+    public void end(Batch batch, Viewport viewport) {
+        batch.end();
+        frameBuffer.end();
+        viewport.apply();
+        batch.begin();
+        // The scene is opaque, no need to blend it
+        batch.disableBlending();
+        batch.draw(sceneRegion, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
+        batch.enableBlending();
+    }
+
+    @Override
+    public void dispose() {
+        disposeFrameBuffer();
+    }
+
+    private void createFrameBuffer() {
+        disposeFrameBuffer();
+        if (scale >= 1f || width == 0 || height == 0) {
+            return;
+        }
+
+        try {
+            frameBuffer = new FrameBuffer(Pixmap.Format.RGB888, Math.round(width * scale),
+                    Math.round(height * scale), false);
+        } catch (IllegalStateException e) {
+            Gdx.app.error(TAG, "Frame buffers not supported, rendering at native resolution", e);
+            scale = 1f;
+            return;
+        }
+
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        sceneRegion = new TextureRegion(texture);
+        // Frame buffer textures are upside down
+        sceneRegion.flip(false, true);
+    }
+
+    private void disposeFrameBuffer() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+            sceneRegion = null;
+        }
+    }
+
+    private static float clampScale(float scale) {
+        return Math.max(MIN_SCALE, Math.min(1f, scale));
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Stores the snapshot of the run in progress in the app's private storage so it survives the
+ * process being killed while in the background
+ */
+public class SnapshotUtils {
+
+    public static void save(byte[] bytes, int length) {
+        getSnapshotFile().writeBytes(bytes, 0, length, false);
+    }
+
+    /**
+     * @return the last saved snapshot or null if there's none
+     */
+    public static byte[] load() {
+        FileHandle file = getSnapshotFile();
+        return file.exists() ? file.readBytes() : null;
+    }
+
+    public static void delete() {
+        FileHandle file = getSnapshotFile();
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    private static FileHandle getSnapshotFile() {
+        return Gdx.files.local(Constants.SNAPSHOT_FILE_NAME);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A uniform grid of square cells over a fixed area, rebuilt whenever its items move. Items are
+ * stored in every cell their bounds overlap; anything outside the area goes into the border
+ * cells, so queries never miss it. Queries can return the same item more than once.
+ */
+public class SpatialGrid<T> {
+
+    private final float x;
+    private final float y;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final Array<Array<T>> cells;
+
+    public SpatialGrid(Rectangle area, float cellSize) {
+        x = area.x;
+        y = area.y;
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(area.width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(area.height / cellSize));
+        cells = new Array<Array<T>>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            cells.add(new Array<T>(false, 4));
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.size; i++) {
+            cells.get(i).clear();
+        }
+    }
+
+    public void insert(T item, Rectangle bounds) {
+        int firstColumn = getColumn(bounds.x);
+        int lastColumn = getColumn(bounds.x + bounds.width);
+        int firstRow = getRow(bounds.y);
+        int lastRow = getRow(bounds.y + bounds.height);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                cells.get(row * columns + column).add(item);
+            }
+        }
+    }
+
+    /**
+     * Adds to out every item stored in the cells overlapping bounds
+     */
+    public void query(Rectangle bounds, Array<T> out) {
+        int firstColumn = getColumn(bounds.x);
+        int lastColumn = getColumn(bounds.x + bounds.width);
+        int firstRow = getRow(bounds.y);
+        int lastRow = getRow(bounds.y + bounds.height);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                out.addAll(cells.get(row * columns + column));
+            }
+        }
+    }
+
+    private int getColumn(float worldX) {
+        return clamp((int) Math.floor((worldX - x) / cellSize), columns);
+    }
+
+    private int getRow(float worldY) {
+        return clamp((int) Math.floor((worldY - y) / cellSize), rows);
+    }
+
+    private static int clamp(int cell, int count) {
+        return Math.max(0, Math.min(count - 1, cell));
+    }
+
+}
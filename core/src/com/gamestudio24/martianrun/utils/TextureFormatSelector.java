@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.gamestudio24.martianrun.enums.TextureFormat;
+
+/**
+ * Picks the texture formats for a device. Opaque images and images with alpha are sized
+ * separately, the first of these tiers that fits the memory budget wins, falling back to the
+ * smallest one:
+ * <ol>
+ * <li>{@link TextureFormat#RGBA8888} for everything</li>
+ * <li>{@link TextureFormat#ETC1}, or {@link TextureFormat#RGB565} without GPU support, for opaque
+ * images</li>
+ * <li>the same plus {@link TextureFormat#RGBA4444} for images with alpha</li>
+ * </ol>
+ */
+public class TextureFormatSelector {
+
+    public static final String ETC1_EXTENSION = "GL_OES_compressed_ETC1_RGB8_texture";
+
+    private final TextureFormat opaqueFormat;
+    private final TextureFormat translucentFormat;
+    private final long bytes;
+
+    /**
+     * @param budget maximum bytes of texture memory, 0 or less for no limit
+     */
+    public TextureFormatSelector(boolean etc1Supported, long budget, long opaquePixels,
+                                 long translucentPixels) {
+        TextureFormat compressed = etc1Supported ? TextureFormat.ETC1 : TextureFormat.RGB565;
+        TextureFormat[][] tiers = new TextureFormat[][] {
+                {TextureFormat.RGBA8888, TextureFormat.RGBA8888},
+                {compressed, TextureFormat.RGBA8888},
+                {compressed, TextureFormat.RGBA4444}
+        };
+
+        int tier = 0;
+        while (budget > 0 && tier < tiers.length - 1 &&
+                getBytes(tiers[tier], opaquePixels, translucentPixels) > budget) {
+            tier++;
+        }
+
+        opaqueFormat = tiers[tier][0];
+        translucentFormat = tiers[tier][1];
+        bytes = getBytes(tiers[tier], opaquePixels, translucentPixels);
+    }
+
+    private static long getBytes(TextureFormat[] formats, long opaquePixels,
+                                 long translucentPixels) {
+        return (long) (opaquePixels * formats[0].getBytesPerPixel() +
+                translucentPixels * formats[1].getBytesPerPixel());
+    }
+
+    /**
+     * @return true if the GPU can sample ETC1 textures, every OpenGL ES 3 one does
+     */
+    public static boolean isEtc1Supported() {
+        return Gdx.graphics.isGL30Available() || Gdx.graphics.supportsExtension(ETC1_EXTENSION);
+    }
+
+    public TextureFormat getOpaqueFormat() {
+        return opaqueFormat;
+    }
+
+    public TextureFormat getTranslucentFormat() {
+        return translucentFormat;
+    }
+
+    /**
+     * @return texture memory the selected formats use
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+}
@@ -20,14 +20,46 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.gamestudio24.martianrun.MartianRun;
+import com.gamestudio24.martianrun.telemetry.GcCounter;
+import com.gamestudio24.martianrun.telemetry.Telemetry;
 import com.gamestudio24.martianrun.utils.Constants;
 import com.gamestudio24.martianrun.utils.GameEventListener;
-
+import com.gamestudio24.martianrun.utils.GameOptions;
+import com.gamestudio24.martianrun.utils.LeaderboardClient;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Plays with the mouse, the keyboard (space/up to jump, down/shift to dodge, P/escape to pause)
+ * or an Xbox style gamepad.
+ * <p/>
+ * Flags: --leaderboard=URL to use a local leaderboard server, --autopilot to let the bot play,
+ * tuned with --reaction-ms and --reaction-jitter-ms, --seed=N to replay the same enemies,
+ * --render-scale=0.75 or --dynamic-resolution to render the world below the window resolution,
+ * --texture-budget-kb=1024 to try the reduced texture formats, --physics-thread to step the
+ * simulation off the render thread, --no-ghost to run without the best run's ghost,
+ * --no-telemetry to log nothing
+ */
 public class DesktopLauncher {
+
+	private static final String LEADERBOARD_ARG_PREFIX = "--leaderboard=";
+
 	public static void main (String[] arg) {
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.width = Constants.APP_WIDTH;
 		config.height = Constants.APP_HEIGHT;
+		final LeaderboardClient leaderboardClient = createLeaderboardClient(arg);
+		Telemetry.getInstance().setGcCounter(new GcCounter() {
+			@Override
+			public long getCollectionCount () {
+				long count = 0;
+				for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+					count += Math.max(0, collector.getCollectionCount());
+				}
+				return count;
+			}
+		});
 		new LwjglApplication(new MartianRun(new GameEventListener() {
 			@Override
 			public void displayAd() {
@@ -42,11 +74,17 @@ public class DesktopLauncher {
 			@Override
 			public void submitScore(int score) {
 				Gdx.app.log(GameEventListener.class.getSimpleName(), "submitScore");
+				if (leaderboardClient != null) {
+					leaderboardClient.submitScore(score);
+				}
 			}
 
 			@Override
 			public void displayLeaderboard() {
 				Gdx.app.log(GameEventListener.class.getSimpleName(), "displayLeaderboard");
+				if (leaderboardClient != null) {
+					leaderboardClient.logTopScores("all_time", 10);
+				}
 			}
 
 			@Override
@@ -124,6 +162,20 @@ public class DesktopLauncher {
 				return null;
 			}
 
-		}), config);
+		}, GameOptions.parse(arg)), config);
+	}
+
+	/**
+	 * @return a client for the local leaderboard server if one was given with
+	 * --leaderboard=http://host:port, null otherwise
+	 */
+	private static LeaderboardClient createLeaderboardClient(String[] arg) {
+		for (String argument : arg) {
+			if (argument.startsWith(LEADERBOARD_ARG_PREFIX)) {
+				return new LeaderboardClient(argument.substring(LEADERBOARD_ARG_PREFIX.length()),
+						System.getProperty("user.name"));
+			}
+		}
+		return null;
 	}
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.tools.bmfont.BitmapFontWriter;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.gamestudio24.martianrun.enums.FontAsset;
+import com.gamestudio24.martianrun.enums.GameSound;
+import com.gamestudio24.martianrun.enums.TextureAsset;
+import com.gamestudio24.martianrun.utils.AssetManifest;
+import com.gamestudio24.martianrun.utils.Constants;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Builds the shipped assets from the source art: packs art/sprites into one atlas per scale,
+ * copies the full screen images and encodes their ETC1 variants, bakes every {@link FontAsset}
+ * into a bitmap font, converts WAV audio to OGG with oggenc when it's installed and indexes the
+ * result in an {@link AssetManifest}. The output directory is emptied first so nothing stale
+ * ships. Takes the art and output directories, ../art and ../android/assets by default.
+ */
+public class AssetPipeline extends ApplicationAdapter {
+
+	private static final String LOG_TAG = AssetPipeline.class.getSimpleName();
+	private static final String SPRITES_DIR = "sprites";
+	private static final float[] SPRITE_SCALES = {1f, 0.5f};
+	private static final String[] SPRITE_SCALE_SUFFIXES = {"_full", "_half"};
+	private static final int FONT_PAGE_SIZE = 512;
+	private static final String OGG_ENCODER = "oggenc";
+
+	private final String artDir;
+	private final String assetsDir;
+	private FileHandle art;
+	private FileHandle assets;
+	private AssetManifest manifest;
+
+	public AssetPipeline (String artDir, String assetsDir) {
+		this.artDir = artDir;
+		this.assetsDir = assetsDir;
+	}
+
+	public static void main (String[] arg) {
+		new HeadlessApplication(new AssetPipeline(arg.length > 0 ? arg[0] : "../art",
+			arg.length > 1 ? arg[1] : "../android/assets"));
+	}
+
+	@Override
+	public void create () {
+		art = Gdx.files.absolute(artDir);
+		assets = Gdx.files.absolute(assetsDir);
+		assets.mkdirs();
+		assets.emptyDirectory();
+		manifest = new AssetManifest();
+
+		packSprites();
+		for (TextureAsset asset : TextureAsset.values()) {
+			if (asset.getFileName() != null) {
+				copyImage(asset.getFileName());
+				if (asset.getEtc1FileName() != null) {
+					encodeEtc1(asset.getFileName(), asset.getEtc1FileName());
+				}
+			}
+		}
+		bakeFonts();
+		for (GameSound sound : GameSound.values()) {
+			convertAudio(sound.getFileName());
+		}
+		convertAudio(Constants.GAME_MUSIC);
+
+		manifest.write(assets.child(AssetManifest.FILE_NAME));
+		Gdx.app.log(LOG_TAG, "Wrote " + assets.child(AssetManifest.FILE_NAME));
+		Gdx.app.exit();
+	}
+
+	private void packSprites () {
+		TexturePacker.Settings settings = new TexturePacker.Settings();
+		settings.filterMin = Texture.TextureFilter.Linear;
+		settings.filterMag = Texture.TextureFilter.Linear;
+		settings.maxWidth = 1024;
+		settings.maxHeight = 1024;
+		// The manifest keeps neither, so every region is stored as is
+		settings.rotation = false;
+		settings.stripWhitespaceX = false;
+		settings.stripWhitespaceY = false;
+		settings.scale = SPRITE_SCALES;
+		settings.scaleSuffix = SPRITE_SCALE_SUFFIXES;
+		settings.silent = true;
+		TexturePacker.process(settings, art.child(SPRITES_DIR).path(), assets.path(),
+			Constants.SPRITES_ATLAS_NAME);
+
+		for (int i = 0; i < SPRITE_SCALES.length; i++) {
+			FileHandle packFile = assets.child(settings.getScaledPackFileName(Constants.SPRITES_ATLAS_NAME, i)
+				+ settings.atlasExtension);
+			TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(packFile, assets, false);
+			TextureAtlas.TextureAtlasData.Page firstPage = data.getPages().first();
+			AssetManifest.Atlas atlas = new AssetManifest.Atlas(Constants.SPRITES_ATLAS_NAME, SPRITE_SCALES[i],
+				firstPage.minFilter, firstPage.magFilter);
+			for (TextureAtlas.TextureAtlasData.Page page : data.getPages()) {
+				addEntry(page.textureFile.name(), page.textureFile, (int)page.width, (int)page.height);
+				atlas.pages.add(page.textureFile.name());
+			}
+			for (TextureAtlas.TextureAtlasData.Region region : data.getRegions()) {
+				atlas.regions.add(new AssetManifest.Region(region.name, region.index,
+					data.getPages().indexOf(region.page, true), region.left, region.top, region.width, region.height));
+			}
+			manifest.addAtlas(atlas);
+			// Only the manifest ships
+			packFile.delete();
+		}
+	}
+
+	private void copyImage (String name) {
+		FileHandle output = assets.child(name);
+		art.child(name).copyTo(output);
+		Pixmap pixmap = new Pixmap(output);
+		addEntry(name, output, pixmap.getWidth(), pixmap.getHeight());
+		pixmap.dispose();
+	}
+
+	private void encodeEtc1 (String imageName, String etc1Name) {
+		Pixmap source = new Pixmap(art.child(imageName));
+		// The encoder only takes 24 and 16 bit pixmaps
+		Pixmap rgb = new Pixmap(source.getWidth(), source.getHeight(), Pixmap.Format.RGB888);
+		// Blending is global to every pixmap
+		Pixmap.Blending blending = Pixmap.getBlending();
+		Pixmap.setBlending(Pixmap.Blending.None);
+		rgb.drawPixmap(source, 0, 0);
+		Pixmap.setBlending(blending);
+		ETC1.ETC1Data data = ETC1.encodeImagePKM(rgb);
+		FileHandle output = assets.child(etc1Name);
+		data.write(output);
+		addEntry(etc1Name, output, source.getWidth(), source.getHeight());
+		data.dispose();
+		rgb.dispose();
+		source.dispose();
+	}
+
+	private void bakeFonts () {
+		FreeTypeFontGenerator generator = new FreeTypeFontGenerator(art.child(Constants.FONT_NAME));
+		for (FontAsset asset : FontAsset.values()) {
+			PixmapPacker packer = new PixmapPacker(FONT_PAGE_SIZE, FONT_PAGE_SIZE, Pixmap.Format.RGBA8888, 2,
+				false);
+			FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+			parameter.size = asset.getSize();
+			parameter.packer = packer;
+			FreeTypeFontGenerator.FreeTypeBitmapFontData data = generator.generateData(parameter);
+
+			FileHandle fontFile = assets.child(asset.getFileName());
+			String[] pages = BitmapFontWriter.writePixmaps(packer.getPages(), assets, fontFile.nameWithoutExtension());
+			BitmapFontWriter.writeFont(data, pages, fontFile, new BitmapFontWriter.FontInfo(
+				art.child(Constants.FONT_NAME).nameWithoutExtension(), asset.getSize()), FONT_PAGE_SIZE, FONT_PAGE_SIZE);
+			addEntry(asset.getFileName(), fontFile, 0, 0);
+			for (String page : pages) {
+				addEntry(page, assets.child(page), FONT_PAGE_SIZE, FONT_PAGE_SIZE);
+			}
+			packer.dispose();
+		}
+		generator.dispose();
+	}
+
+	private void convertAudio (String name) {
+		FileHandle source = art.child(name);
+		if (!source.exists()) {
+			Gdx.app.error(LOG_TAG, "Missing " + source + ", the game plays without it");
+			return;
+		}
+		if (source.extension().equals("wav")) {
+			FileHandle output = assets.child(source.nameWithoutExtension() + ".ogg");
+			if (encodeOgg(source, output)) {
+				addEntry(name, output, 0, 0);
+				return;
+			}
+			Gdx.app.error(LOG_TAG, OGG_ENCODER + " not found, shipping " + name + " uncompressed");
+		}
+		FileHandle output = assets.child(name);
+		source.copyTo(output);
+		addEntry(name, output, 0, 0);
+	}
+
+	private static boolean encodeOgg (FileHandle source, FileHandle output) {
+		try {
+			Process process = new ProcessBuilder(OGG_ENCODER, "--quiet", "--quality=4", "--output=" + output.path(),
+				source.path()).redirectErrorStream(true).start();
+			if (process.waitFor() != 0) {
+				throw new GdxRuntimeException(OGG_ENCODER + " failed on " + source);
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			throw new GdxRuntimeException(e);
+		}
+	}
+
+	private void addEntry (String name, FileHandle file, int width, int height) {
+		CRC32 crc = new CRC32();
+		crc.update(file.readBytes());
+		manifest.addEntry(new AssetManifest.Entry(name, file.name(), file.length(), (int)crc.getValue(), width,
+			height));
+	}
+
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.headless;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.gamestudio24.martianrun.ai.AutopilotBot;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.screens.SimulationScreen;
+import com.gamestudio24.martianrun.simulation.ClearanceSolver;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.simulation.SimulationListener;
+import com.gamestudio24.martianrun.utils.AliasTable;
+import com.gamestudio24.martianrun.utils.GameOptions;
+import com.gamestudio24.martianrun.utils.GameRandom;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo balancing: plays seeded runs with {@link AutopilotBot} at every {@link Difficulty},
+ * locked for the whole run, against every enemy mix, on all cores. Each run is also replayed by
+ * an oracle bot with no reaction delay on the same spawns; whatever still kills the oracle is
+ * counted as an impossible spawn. Writes summary.csv (score distribution, impossible spawn rate
+ * and how often the spawner redrew an unclearable enemy per difficulty and mix) and survival.csv
+ * (fraction of runs alive after each second).
+ * <p/>
+ * Besides the bot flags of {@link GameOptions#parse(String[])} it takes --runs=2000 per
+ * difficulty and mix, 0 to skip the runs, --max-seconds=60 after which a run counts as survived,
+ * --threads=N, --output=DIR, --unfair-spawns to turn off the spawner's {@link ClearanceSolver}
+ * check and --mixes=all,RUNNING_SMALL,FLYING_SMALL+FLYING_WIDE, by default the usual mix and each
+ * enemy type on its own. Results only depend on the seed, not on the thread count.
+ * <p/>
+ * --patterns=FILE checks a library of spawn sequences analytically instead, one per line like
+ * RUNNING_BIG+FLYING_SMALL+RUNNING_SMALL, and writes the first unclearable enemy of each at every
+ * difficulty to patterns.csv.
+ */
+public class BalanceTool {
+
+	private static final float FRAME_TIME = SimulationScreen.FRAME_TIME;
+	private static final int BATCH_SIZE = 100;
+	private static final String ALL_MIX = "all";
+	private static final String MIX_SEPARATOR = "+";
+	private static final String UNFAIR_SPAWNS_ARG = "--unfair-spawns";
+	private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+	private static final AutopilotBot.AutopilotListener NO_AUTOPILOT_LISTENER = new AutopilotBot.AutopilotListener() {
+		@Override
+		public void onNewRunRequested () {
+		}
+	};
+
+	private final GameOptions options;
+	private final int maxSeconds;
+	private final int maxFrames;
+	private final boolean fairSpawns;
+
+	public BalanceTool (GameOptions options, int maxSeconds, boolean fairSpawns) {
+		this.options = options;
+		this.maxSeconds = maxSeconds;
+		this.fairSpawns = fairSpawns;
+		maxFrames = Math.round(maxSeconds / FRAME_TIME);
+	}
+
+	public static void main (String[] arg) throws Exception {
+		GameOptions options = GameOptions.parse(arg);
+		int runs = Integer.parseInt(getOption(arg, "--runs=", "2000"));
+		int maxSeconds = Integer.parseInt(getOption(arg, "--max-seconds=", "60"));
+		int threads = Integer.parseInt(getOption(arg, "--threads=",
+			String.valueOf(Runtime.getRuntime().availableProcessors())));
+		File output = new File(getOption(arg, "--output=", "balance"));
+		String[] mixes = getOption(arg, "--mixes=", getDefaultMixes()).split(",");
+		String patterns = getOption(arg, "--patterns=", null);
+
+		output.mkdirs();
+		if (patterns != null) {
+			checkPatterns(new File(patterns), new File(output, "patterns.csv"));
+		}
+		if (runs == 0) {
+			return;
+		}
+
+		BalanceTool tool = new BalanceTool(options, maxSeconds, !Arrays.asList(arg).contains(UNFAIR_SPAWNS_ARG));
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long startTime = System.nanoTime();
+
+		// Everything is queued up front so workers never wait on the merge
+		List<List<Future<Batch>>> cells = new ArrayList<List<Future<Batch>>>();
+		for (int mix = 0; mix < mixes.length; mix++) {
+			AliasTable<EnemyType> enemyTypes = parseMix(mixes[mix]);
+			for (Difficulty difficulty : DIFFICULTIES) {
+				long cellSeed = new GameRandom(options.getSeed() + cells.size()).nextLong();
+				List<Future<Batch>> batches = new ArrayList<Future<Batch>>();
+				for (int first = 0; first < runs; first += BATCH_SIZE) {
+					batches.add(executor.submit(tool.new BatchTask(difficulty, enemyTypes, cellSeed, first,
+						Math.min(BATCH_SIZE, runs - first))));
+				}
+				cells.add(batches);
+			}
+		}
+
+		Writer summary = new FileWriter(new File(output, "summary.csv"));
+		Writer survival = new FileWriter(new File(output, "survival.csv"));
+		try {
+			summary.write("difficulty,mix,runs,survived,mean_seconds,score_mean,score_p10,score_p50,score_p90,"
+				+ "enemies_per_run,impossible_spawn_rate,rejected_spawn_rate\n");
+			survival.write("difficulty,mix,second,alive\n");
+			int cell = 0;
+			for (String mix : mixes) {
+				for (Difficulty difficulty : DIFFICULTIES) {
+					Batch result = new Batch(0, maxSeconds);
+					for (Future<Batch> batch : cells.get(cell++)) {
+						result.add(batch.get());
+					}
+					result.writeSummary(summary, difficulty, mix);
+					result.writeSurvival(survival, difficulty, mix);
+					System.out.println(String.format("difficulty %d, %s: %d runs, %.1f%% survived, impossible %.4f",
+						difficulty.getLevel(), mix, result.runs, 100f * result.survived / result.runs,
+						result.getImpossibleSpawnRate()));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			summary.close();
+			survival.close();
+		}
+
+		System.out.println(String.format("%d runs in %.1fs on %d threads, results in %s",
+			runs * cells.size(), (System.nanoTime() - startTime) / 1e9, threads, output.getAbsolutePath()));
+	}
+
+	/**
+	 * Writes, for each pattern and difficulty, the index of the first enemy that can't be cleared or
+	 * -1
+	 */
+	private static void checkPatterns (File patterns, File output) throws IOException {
+		ClearanceSolver solver = new ClearanceSolver();
+		BufferedReader reader = new BufferedReader(new FileReader(patterns));
+		Writer writer = new FileWriter(output);
+		int count = 0;
+		int unclearable = 0;
+		try {
+			writer.write("pattern,difficulty,first_unclearable\n");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.length() == 0) {
+					continue;
+				}
+				EnemyType[] enemyTypes = parseEnemyTypes(line);
+				for (Difficulty difficulty : DIFFICULTIES) {
+					int index = solver.findUnclearable(difficulty, enemyTypes, enemyTypes.length);
+					writer.write(line + "," + difficulty.getLevel() + "," + index + "\n");
+					if (index != -1) {
+						unclearable++;
+					}
+				}
+				count++;
+			}
+		} finally {
+			reader.close();
+			writer.close();
+		}
+		System.out.println(String.format("%d patterns, %d unclearable pattern and difficulty pairs, results in %s",
+			count, unclearable, output.getAbsolutePath()));
+	}
+
+	private static String getOption (String[] arg, String prefix, String defaultValue) {
+		for (String argument : arg) {
+			if (argument.startsWith(prefix)) {
+				return argument.substring(prefix.length());
+			}
+		}
+		return defaultValue;
+	}
+
+	private static String getDefaultMixes () {
+		StringBuilder mixes = new StringBuilder(ALL_MIX);
+		for (EnemyType enemyType : EnemyType.values()) {
+			mixes.append(',').append(enemyType.name());
+		}
+		return mixes.toString();
+	}
+
+	/**
+	 * @return the enemy types joined by {@link #MIX_SEPARATOR}, each weighted by its spawn weight, or
+	 * null for {@link #ALL_MIX}
+	 */
+	private static AliasTable<EnemyType> parseMix (String mix) {
+		if (mix.equals(ALL_MIX)) {
+			return null;
+		}
+		EnemyType[] enemyTypes = parseEnemyTypes(mix);
+		float[] weights = new float[enemyTypes.length];
+		for (int i = 0; i < enemyTypes.length; i++) {
+			weights[i] = enemyTypes[i].getSpawnWeight();
+		}
+		return new AliasTable<EnemyType>(enemyTypes, weights);
+	}
+
+	private static EnemyType[] parseEnemyTypes (String names) {
+		String[] split = names.split("\\" + MIX_SEPARATOR);
+		EnemyType[] enemyTypes = new EnemyType[split.length];
+		for (int i = 0; i < split.length; i++) {
+			enemyTypes[i] = EnemyType.valueOf(split[i]);
+		}
+		return enemyTypes;
+	}
+
+	/**
+	 * Plays one run until the runner is hit or the time runs out
+	 *
+	 * @return the simulation, for the caller to read and dispose
+	 */
+	private GameSimulation play (Difficulty difficulty, AliasTable<EnemyType> enemyTypes, long spawnSeed,
+		AutopilotBot bot, SpawnCounter spawnCounter) {
+		spawnCounter.spawned = 0;
+		GameSimulation simulation = new GameSimulation(new GameRandom(spawnSeed), spawnCounter);
+		simulation.setJumpBufferTime(options.getJumpBufferTime());
+		simulation.setCoyoteTime(options.getCoyoteTime());
+		simulation.lockDifficulty(difficulty);
+		simulation.setEnemyTypes(enemyTypes);
+		simulation.setFairSpawns(fairSpawns);
+		simulation.start();
+		// The bot is left before it notices the end, it would only wait to ask for another run
+		for (int frame = 0; frame < maxFrames && simulation.isRunning(); frame++) {
+			bot.update(simulation, FRAME_TIME);
+			simulation.update(FRAME_TIME);
+		}
+		return simulation;
+	}
+
+	private class BatchTask implements Callable<Batch> {
+
+		private final Difficulty difficulty;
+		private final AliasTable<EnemyType> enemyTypes;
+		private final long cellSeed;
+		private final int first;
+		private final int count;
+
+		public BatchTask (Difficulty difficulty, AliasTable<EnemyType> enemyTypes, long cellSeed, int first,
+			int count) {
+			this.difficulty = difficulty;
+			this.enemyTypes = enemyTypes;
+			this.cellSeed = cellSeed;
+			this.first = first;
+			this.count = count;
+		}
+
+		@Override
+		public Batch call () {
+			Batch batch = new Batch(count, maxSeconds);
+			SpawnCounter spawnCounter = new SpawnCounter();
+			for (int run = first; run < first + count; run++) {
+				GameRandom random = new GameRandom(cellSeed + run);
+				long spawnSeed = random.nextLong();
+
+				AutopilotBot bot = new AutopilotBot(random.split(), options.getReactionTime(),
+					options.getReactionJitter(), NO_AUTOPILOT_LISTENER);
+				GameSimulation simulation = play(difficulty, enemyTypes, spawnSeed, bot, spawnCounter);
+				batch.addRun(simulation, spawnCounter.spawned);
+				simulation.dispose();
+
+				AutopilotBot oracle = new AutopilotBot(random.split(), 0, 0, NO_AUTOPILOT_LISTENER);
+				simulation = play(difficulty, enemyTypes, spawnSeed, oracle, spawnCounter);
+				batch.addOracleRun(simulation, spawnCounter.spawned);
+				simulation.dispose();
+			}
+			return batch;
+		}
+
+	}
+
+	private static class SpawnCounter implements SimulationListener {
+
+		private int spawned;
+
+		@Override
+		public void onEnemySpawned (Body body) {
+			spawned++;
+		}
+
+		@Override
+		public void onJump () {
+		}
+
+		@Override
+		public void onDifficultyChange (Difficulty difficulty) {
+		}
+
+		@Override
+		public void onRunnerHit () {
+		}
+
+	}
+
+	/**
+	 * Results of some runs of one difficulty and mix
+	 */
+	private static class Batch {
+
+		private int runs;
+		private int survived;
+		private int[] scores;
+		// Runs hit during each simulated second, the ones left after the last survived
+		private int[] deaths;
+		private double totalSeconds;
+		private long enemies;
+		private long rejectedSpawns;
+		private long oracleEnemies;
+		private int oracleHits;
+
+		public Batch (int capacity, int maxSeconds) {
+			scores = new int[capacity];
+			deaths = new int[maxSeconds];
+		}
+
+		public void addRun (GameSimulation simulation, int spawned) {
+			float seconds = simulation.getTotalTimePassed();
+			if (simulation.isRunning()) {
+				survived++;
+			} else {
+				deaths[Math.min((int) seconds, deaths.length - 1)]++;
+			}
+			scores[runs++] = simulation.getScore();
+			totalSeconds += seconds;
+			enemies += spawned;
+			rejectedSpawns += simulation.getRejectedSpawns();
+		}
+
+		public void addOracleRun (GameSimulation simulation, int spawned) {
+			if (!simulation.isRunning()) {
+				oracleHits++;
+			}
+			oracleEnemies += spawned;
+		}
+
+		public void add (Batch batch) {
+			if (runs + batch.runs > scores.length) {
+				scores = Arrays.copyOf(scores, Math.max(runs + batch.runs, scores.length * 2));
+			}
+			System.arraycopy(batch.scores, 0, scores, runs, batch.runs);
+			runs += batch.runs;
+			survived += batch.survived;
+			for (int i = 0; i < deaths.length; i++) {
+				deaths[i] += batch.deaths[i];
+			}
+			totalSeconds += batch.totalSeconds;
+			enemies += batch.enemies;
+			rejectedSpawns += batch.rejectedSpawns;
+			oracleEnemies += batch.oracleEnemies;
+			oracleHits += batch.oracleHits;
+		}
+
+		public float getImpossibleSpawnRate () {
+			return oracleEnemies == 0 ? 0 : oracleHits / (float) oracleEnemies;
+		}
+
+		public void writeSummary (Writer writer, Difficulty difficulty, String mix) throws IOException {
+			Arrays.sort(scores, 0, runs);
+			long totalScore = 0;
+			for (int i = 0; i < runs; i++) {
+				totalScore += scores[i];
+			}
+			writer.write(difficulty.getLevel() + "," + mix + "," + runs + "," + survived + "," +
+				(float) (totalSeconds / runs) + "," + totalScore / (float) runs + "," + getPercentile(0.1f) + "," +
+				getPercentile(0.5f) + "," + getPercentile(0.9f) + "," + enemies / (float) runs + "," +
+				getImpossibleSpawnRate() + "," + rejectedSpawns / (float) enemies + "\n");
+		}
+
+		public void writeSurvival (Writer writer, Difficulty difficulty, String mix) throws IOException {
+			int alive = runs;
+			for (int second = 0; second <= deaths.length; second++) {
+				writer.write(difficulty.getLevel() + "," + mix + "," + second + "," + alive / (float) runs + "\n");
+				if (second < deaths.length) {
+					alive -= deaths[second];
+				}
+			}
+		}
+
+		private int getPercentile (float percentile) {
+			return scores[Math.min(runs - 1, (int) (percentile * runs))];
+		}
+
+	}
+
+}
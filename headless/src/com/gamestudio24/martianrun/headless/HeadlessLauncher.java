@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.gamestudio24.martianrun.MartianRun;
+import com.gamestudio24.martianrun.utils.GameOptions;
+
+/**
+ * Runs the game simulation without a display or audio device, for servers and CI. Frames run
+ * as fast as the CPU allows unless --realtime is given. Besides the desktop flags it takes
+ * --max-frames=N to stop after N frames and --metrics=FILE to write a summary when it does.
+ * <p/>
+ * For example: --autopilot --seed=42 --max-frames=36000 --metrics=metrics.txt
+ */
+public class HeadlessLauncher {
+
+	private static final String REALTIME_ARG = "--realtime";
+
+	public static void main (String[] arg) {
+		GameOptions options = GameOptions.parse(arg);
+		options.setHeadless(true);
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.renderInterval = isRealtime(arg) ? 1 / 60f : 0;
+		new HeadlessApplication(new MartianRun(options), config);
+	}
+
+	private static boolean isRealtime(String[] arg) {
+		for (String argument : arg) {
+			if (REALTIME_ARG.equals(argument)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.headless;
+
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.enums.EnemyType;
+import com.gamestudio24.martianrun.telemetry.ListenerCall;
+import com.gamestudio24.martianrun.telemetry.TelemetryFormat;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Aggregates telemetry logs in a single streaming pass, however many there are. Files are
+ * memory-mapped and decoded one block at a time into buffers each worker reuses, so nothing is
+ * created per record and memory doesn't grow with the input. Files are spread over a thread pool.
+ * <p/>
+ * Arguments are log files or directories searched for *.log, plus --threads=N and
+ * --output=DIR. Writes:
+ * <ul>
+ * <li>frame_times.csv: frame time percentiles and garbage collections per minute during runs, per
+ * device class (cores, max heap rounded down to a power of two)</li>
+ * <li>deaths.csv: deaths per enemy type and time into the run. The runner can only be hit by the
+ * last spawned enemy.</li>
+ * <li>difficulty.csv: how many runs reached each difficulty</li>
+ * <li>calls.csv: GameEventListener call latencies</li>
+ * </ul>
+ * A run whose start is in another file, because rotation split its session, only counts toward
+ * frame times once the next run starts.
+ */
+public class TelemetryAnalyzer {
+
+	private static final String LOG_SUFFIX = ".log";
+	// Blocks are far smaller, a window only has to fit in an int
+	private static final long WINDOW_BYTES = 1L << 30;
+	// 0.1ms buckets up to a second, longer frames share the last one
+	private static final int FRAME_BUCKET_MICROS = 100;
+	private static final int FRAME_BUCKETS = 10001;
+	private static final int DEATH_BUCKET_SECONDS = 10;
+	// The last one is 5 minutes and over
+	private static final int DEATH_BUCKETS = 31;
+	private static final float[] PERCENTILES = {0.5f, 0.9f, 0.99f, 0.999f};
+	private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+	private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+	private static final ListenerCall[] CALLS = ListenerCall.values();
+	// Deaths row for a killer that spawned before the file started
+	private static final int UNKNOWN_KILLER = ENEMY_TYPES.length;
+
+	public static void main (String[] arg) throws Exception {
+		int threads = Integer.parseInt(getOption(arg, "--threads=",
+			String.valueOf(Runtime.getRuntime().availableProcessors())));
+		File output = new File(getOption(arg, "--output=", "telemetry-report"));
+		List<File> files = new ArrayList<File>();
+		for (String argument : arg) {
+			if (!argument.startsWith("--")) {
+				findLogs(new File(argument), files);
+			}
+		}
+		if (files.isEmpty()) {
+			System.err.println("No " + LOG_SUFFIX + " files given");
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		long startTime = System.nanoTime();
+		Aggregate total = new Aggregate();
+		try {
+			List<Future<Aggregate>> results = new ArrayList<Future<Aggregate>>();
+			for (File file : files) {
+				results.add(executor.submit(new FileTask(file)));
+			}
+			// Merged in file order, the output doesn't depend on scheduling
+			for (Future<Aggregate> result : results) {
+				total.add(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		double seconds = (System.nanoTime() - startTime) / 1e9;
+
+		output.mkdirs();
+		total.writeFrameTimes(new File(output, "frame_times.csv"));
+		total.writeDeaths(new File(output, "deaths.csv"));
+		total.writeDifficulties(new File(output, "difficulty.csv"));
+		total.writeCalls(new File(output, "calls.csv"));
+
+		System.out.println(String.format("%d files, %d blocks, %d records, %d runs, %d dropped records, "
+				+ "%d unreadable files", files.size(), total.blocks, total.records, total.runs, total.getDroppedRecords(),
+			total.unreadableFiles));
+		System.out.println(String.format("%.1f MB in %.2fs on %d threads, %.1f MB/s, results in %s",
+			total.bytes / 1e6, seconds, threads, total.bytes / 1e6 / seconds, output.getAbsolutePath()));
+	}
+
+	private static void findLogs (File file, List<File> files) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					findLogs(child, files);
+				}
+			}
+		} else if (file.getName().endsWith(LOG_SUFFIX)) {
+			files.add(file);
+		}
+	}
+
+	private static String getOption (String[] arg, String prefix, String defaultValue) {
+		for (String argument : arg) {
+			if (argument.startsWith(prefix)) {
+				return argument.substring(prefix.length());
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @return cores and max heap rounded down to a power of two, so similar devices share a class
+	 */
+	private static int getDeviceClass (int device) {
+		int heap = TelemetryFormat.getDeviceHeapMegabytes(device);
+		return TelemetryFormat.getDeviceCores(device) << 16 | (heap > 0 ? Integer.highestOneBit(heap) : 0);
+	}
+
+	private static class DeviceStats {
+
+		private final long[] frames = new long[FRAME_BUCKETS];
+		private long frameMicros;
+		private long collections;
+
+		void add (DeviceStats other) {
+			for (int i = 0; i < FRAME_BUCKETS; i++) {
+				frames[i] += other.frames[i];
+			}
+			frameMicros += other.frameMicros;
+			collections += other.collections;
+		}
+
+		long getFrameCount () {
+			long count = 0;
+			for (long frame : frames) {
+				count += frame;
+			}
+			return count;
+		}
+
+		/**
+		 * @return upper bound of the bucket holding the percentile, in ms
+		 */
+		float getPercentile (float percentile, long count) {
+			long rank = (long)Math.ceil(percentile * count);
+			long seen = 0;
+			for (int i = 0; i < FRAME_BUCKETS; i++) {
+				seen += frames[i];
+				if (seen >= rank) {
+					return (i + 1) * FRAME_BUCKET_MICROS / 1000f;
+				}
+			}
+			return FRAME_BUCKETS * FRAME_BUCKET_MICROS / 1000f;
+		}
+
+	}
+
+	private static class Aggregate {
+
+		private final Map<Integer, DeviceStats> devices = new TreeMap<Integer, DeviceStats>();
+		private final long[][] deaths = new long[ENEMY_TYPES.length + 1][DEATH_BUCKETS];
+		private final long[] difficultiesReached = new long[DIFFICULTIES.length];
+		private final long[] callCounts = new long[CALLS.length];
+		private final long[] callMicros = new long[CALLS.length];
+		private final long[] callMaxMicros = new long[CALLS.length];
+		// Blocks carry the session's running total, which rotation can spread over several files
+		private final Map<Long, Integer> sessionDropped = new TreeMap<Long, Integer>();
+		private long bytes;
+		private long blocks;
+		private long records;
+		private long runs;
+		private long unreadableFiles;
+
+		DeviceStats getDevice (int deviceClass) {
+			DeviceStats stats = devices.get(deviceClass);
+			if (stats == null) {
+				stats = new DeviceStats();
+				devices.put(deviceClass, stats);
+			}
+			return stats;
+		}
+
+		void setDropped (long session, int dropped) {
+			Integer previous = sessionDropped.get(session);
+			if (previous == null || previous < dropped) {
+				sessionDropped.put(session, dropped);
+			}
+		}
+
+		long getDroppedRecords () {
+			long dropped = 0;
+			for (int sessionTotal : sessionDropped.values()) {
+				dropped += sessionTotal;
+			}
+			return dropped;
+		}
+
+		void add (Aggregate other) {
+			for (Map.Entry<Integer, DeviceStats> entry : other.devices.entrySet()) {
+				getDevice(entry.getKey()).add(entry.getValue());
+			}
+			for (int killer = 0; killer < deaths.length; killer++) {
+				for (int bucket = 0; bucket < DEATH_BUCKETS; bucket++) {
+					deaths[killer][bucket] += other.deaths[killer][bucket];
+				}
+			}
+			for (int i = 0; i < difficultiesReached.length; i++) {
+				difficultiesReached[i] += other.difficultiesReached[i];
+			}
+			for (int i = 0; i < CALLS.length; i++) {
+				callCounts[i] += other.callCounts[i];
+				callMicros[i] += other.callMicros[i];
+				callMaxMicros[i] = Math.max(callMaxMicros[i], other.callMaxMicros[i]);
+			}
+			bytes += other.bytes;
+			blocks += other.blocks;
+			records += other.records;
+			runs += other.runs;
+			for (Map.Entry<Long, Integer> entry : other.sessionDropped.entrySet()) {
+				setDropped(entry.getKey(), entry.getValue());
+			}
+			unreadableFiles += other.unreadableFiles;
+		}
+
+		void writeFrameTimes (File file) throws IOException {
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write("cores,heap_mb,frames,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,gc_per_minute\n");
+				for (Map.Entry<Integer, DeviceStats> entry : devices.entrySet()) {
+					DeviceStats stats = entry.getValue();
+					long count = stats.getFrameCount();
+					if (count == 0) {
+						continue;
+					}
+					StringBuilder line = new StringBuilder();
+					line.append(TelemetryFormat.getDeviceCores(entry.getKey())).append(',')
+						.append(TelemetryFormat.getDeviceHeapMegabytes(entry.getKey())).append(',')
+						.append(count).append(',')
+						.append(String.format("%.2f", stats.frameMicros / 1000.0 / count));
+					for (float percentile : PERCENTILES) {
+						line.append(',').append(String.format("%.1f", stats.getPercentile(percentile, count)));
+					}
+					line.append(',').append(String.format("%.2f", stats.collections / (stats.frameMicros / 60e6)));
+					writer.write(line.append('\n').toString());
+				}
+			} finally {
+				writer.close();
+			}
+		}
+
+		void writeDeaths (File file) throws IOException {
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write("enemy_type,second,deaths\n");
+				for (int killer = 0; killer < deaths.length; killer++) {
+					String name = killer == UNKNOWN_KILLER ? "UNKNOWN" : ENEMY_TYPES[killer].name();
+					for (int bucket = 0; bucket < DEATH_BUCKETS; bucket++) {
+						writer.write(name + "," + bucket * DEATH_BUCKET_SECONDS + "," + deaths[killer][bucket] + "\n");
+					}
+				}
+			} finally {
+				writer.close();
+			}
+		}
+
+		void writeDifficulties (File file) throws IOException {
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write("difficulty,runs\n");
+				for (int i = 0; i < DIFFICULTIES.length; i++) {
+					writer.write(DIFFICULTIES[i].getLevel() + "," + difficultiesReached[i] + "\n");
+				}
+			} finally {
+				writer.close();
+			}
+		}
+
+		void writeCalls (File file) throws IOException {
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write("call,count,mean_ms,max_ms\n");
+				for (int i = 0; i < CALLS.length; i++) {
+					writer.write(String.format("%s,%d,%.3f,%.3f\n", CALLS[i].name(), callCounts[i],
+						callCounts[i] > 0 ? callMicros[i] / 1000.0 / callCounts[i] : 0, callMaxMicros[i] / 1000.0));
+				}
+			} finally {
+				writer.close();
+			}
+		}
+
+	}
+
+	/**
+	 * Decodes one file block by block, carrying the state of the session being read
+	 */
+	private static class FileTask implements Callable<Aggregate> {
+
+		private final File file;
+		private final Aggregate aggregate = new Aggregate();
+		private final Inflater inflater = new Inflater(true);
+		private byte[] compressed = new byte[64 * 1024];
+		private byte[] raw = new byte[64 * 1024];
+		private ByteBuffer records = ByteBuffer.wrap(raw);
+
+		private long session;
+		private boolean sessionStarted;
+		private DeviceStats device;
+		private boolean running;
+		private long runStartTime;
+		private int killer;
+		private int maxDifficulty;
+
+		FileTask (File file) {
+			this.file = file;
+		}
+
+		@Override
+		public Aggregate call () throws IOException {
+			RandomAccessFile input = new RandomAccessFile(file, "r");
+			try {
+				read(input.getChannel());
+			} catch (DataFormatException e) {
+				aggregate.unreadableFiles++;
+			} catch (RuntimeException e) {
+				// Raw deflate has no checksum, a damaged block can inflate into records that
+				// run past its end. What was read before it still counts.
+				aggregate.unreadableFiles++;
+			} finally {
+				input.close();
+				inflater.end();
+			}
+			return aggregate;
+		}
+
+		private void read (FileChannel channel) throws IOException, DataFormatException {
+			long size = channel.size();
+			aggregate.bytes += size;
+			MappedByteBuffer window = null;
+			long windowStart = 0;
+			long position = 0;
+			while (position + TelemetryFormat.HEADER_BYTES <= size) {
+				if (window == null || position + TelemetryFormat.HEADER_BYTES > windowStart + window.limit()) {
+					windowStart = position;
+					window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_BYTES, size - windowStart));
+				}
+				int offset = (int)(position - windowStart);
+				if (window.getInt(offset) != TelemetryFormat.MAGIC || window.get(offset + 4) != TelemetryFormat.VERSION) {
+					// Nothing after it can be located
+					aggregate.unreadableFiles++;
+					return;
+				}
+				int compressedLength = window.getInt(offset + TelemetryFormat.HEADER_BYTES - 4);
+				long end = position + TelemetryFormat.HEADER_BYTES + compressedLength;
+				if (compressedLength < 0 || end > size) {
+					// Cut short by a crash while writing, or garbage
+					aggregate.unreadableFiles++;
+					return;
+				}
+				if (end > windowStart + window.limit()) {
+					windowStart = position;
+					window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_BYTES, size - windowStart));
+					offset = 0;
+				}
+				readBlock(window, offset, compressedLength);
+				position = end;
+			}
+		}
+
+		private void readBlock (MappedByteBuffer window, int offset, int compressedLength) throws DataFormatException {
+			long blockSession = window.getLong(offset + 5);
+			int blockDevice = window.getInt(offset + 13);
+			long time = window.getLong(offset + 17);
+			int count = window.getInt(offset + 25);
+			int dropped = window.getInt(offset + 29);
+			int rawLength = window.getInt(offset + 33);
+
+			if (!sessionStarted || blockSession != session) {
+				startSession(blockSession, blockDevice);
+			}
+			aggregate.setDropped(session, dropped);
+
+			if (compressed.length < compressedLength) {
+				compressed = new byte[compressedLength];
+			}
+			if (raw.length < rawLength) {
+				raw = new byte[rawLength];
+				records = ByteBuffer.wrap(raw);
+			}
+			window.position(offset + TelemetryFormat.HEADER_BYTES);
+			window.get(compressed, 0, compressedLength);
+			inflater.reset();
+			inflater.setInput(compressed, 0, compressedLength);
+			if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+				throw new DataFormatException("Block shorter than its header says");
+			}
+
+			records.clear();
+			records.limit(rawLength);
+			for (int i = 0; i < count; i++) {
+				byte type = records.get();
+				time += TelemetryFormat.getVarLong(records);
+				readRecord(type, TelemetryFormat.getSignedVarInt(records), time);
+			}
+			aggregate.blocks++;
+			aggregate.records += count;
+		}
+
+		private void startSession (long blockSession, int blockDevice) {
+			session = blockSession;
+			sessionStarted = true;
+			device = aggregate.getDevice(getDeviceClass(blockDevice));
+			running = false;
+		}
+
+		private void readRecord (byte type, int value, long time) {
+			switch (type) {
+			case TelemetryFormat.FRAME:
+				// The game never writes negative frame times, only a damaged block would
+				if (running && value >= 0) {
+					device.frames[Math.min(value / FRAME_BUCKET_MICROS, FRAME_BUCKETS - 1)]++;
+					device.frameMicros += value;
+				}
+				break;
+			case TelemetryFormat.GC:
+				if (running) {
+					device.collections += value;
+				}
+				break;
+			case TelemetryFormat.DIFFICULTY:
+				maxDifficulty = Math.max(maxDifficulty, Math.min(value, DIFFICULTIES.length - 1));
+				break;
+			case TelemetryFormat.SPAWN:
+				killer = value;
+				break;
+			case TelemetryFormat.RUN_START:
+				running = true;
+				runStartTime = time;
+				killer = UNKNOWN_KILLER;
+				maxDifficulty = 0;
+				break;
+			case TelemetryFormat.DEATH:
+				if (running) {
+					int bucket = (int)Math.min((time - runStartTime) / 1000000L / DEATH_BUCKET_SECONDS, DEATH_BUCKETS - 1);
+					aggregate.deaths[killer >= 0 && killer < ENEMY_TYPES.length ? killer : UNKNOWN_KILLER][bucket]++;
+					aggregate.difficultiesReached[maxDifficulty]++;
+					aggregate.runs++;
+					running = false;
+				}
+				break;
+			default:
+				int call = type - TelemetryFormat.LISTENER_CALL;
+				if (call >= 0 && call < CALLS.length) {
+					aggregate.callCounts[call]++;
+					aggregate.callMicros[call] += value;
+					aggregate.callMaxMicros[call] = Math.max(aggregate.callMaxMicros[call], value);
+				}
+				break;
+			}
+		}
+
+	}
+
+}
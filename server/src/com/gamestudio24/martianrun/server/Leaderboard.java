@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Best score per player for a single {@link LeaderboardPeriod}. Submissions only touch a
+ * concurrent map, ranking happens in {@link #publish()} off the request path.
+ */
+public class Leaderboard {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final LeaderboardPeriod period;
+    private final ConcurrentHashMap<String, Integer> bestScores;
+    private final AtomicBoolean dirty;
+    private volatile long periodIndex;
+    private volatile LeaderboardWindow window;
+
+    public Leaderboard(LeaderboardPeriod period, long periodIndex) {
+        this.period = period;
+        this.periodIndex = periodIndex;
+        bestScores = new ConcurrentHashMap<String, Integer>();
+        dirty = new AtomicBoolean();
+        window = LeaderboardWindow.EMPTY;
+    }
+
+    /**
+     * Keeps the given score if it's the player's best for this period
+     *
+     * @return true if the score was kept
+     */
+    public boolean submit(String player, int score) {
+        while (true) {
+            Integer best = bestScores.putIfAbsent(player, score);
+            if (best == null) {
+                break;
+            }
+            if (best >= score) {
+                return false;
+            }
+            if (bestScores.replace(player, best, score)) {
+                break;
+            }
+        }
+        dirty.set(true);
+        return true;
+    }
+
+    /**
+     * Rebuilds the ranked window if any score changed since the last call
+     */
+    public void publish() {
+        if (dirty.getAndSet(false)) {
+            window = LeaderboardWindow.build(bestScores);
+        }
+    }
+
+    /**
+     * Clears the board if the given time belongs to a newer period
+     */
+    public void rollOver(long timeMillis) {
+        long currentIndex = period.getPeriodIndex(timeMillis);
+        if (currentIndex == periodIndex) {
+            return;
+        }
+        periodIndex = currentIndex;
+        bestScores.clear();
+        window = LeaderboardWindow.EMPTY;
+        dirty.set(false);
+    }
+
+    public LeaderboardPeriod getPeriod() {
+        return period;
+    }
+
+    public LeaderboardWindow getWindow() {
+        return window;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(periodIndex);
+        // Only the published window is written, anything newer is at most one publish interval old
+        LeaderboardWindow snapshot = window;
+        out.writeInt(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            out.writeUTF(snapshot.getPlayer(i));
+            out.writeInt(snapshot.getScore(i));
+        }
+    }
+
+    /**
+     * Loads a board written by {@link #write(DataOutputStream)}. Boards from an older period are
+     * skipped.
+     */
+    public void read(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported leaderboard snapshot version");
+        }
+        if (in.readLong() != periodIndex) {
+            return;
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            submit(in.readUTF(), in.readInt());
+        }
+        publish();
+    }
+
+    @Override
+    public String toString() {
+        return "Leaderboard{" +
+                "period=" + period +
+                ", periodIndex=" + periodIndex +
+                ", players=" + bestScores.size() +
+                '}';
+    }
+
+}
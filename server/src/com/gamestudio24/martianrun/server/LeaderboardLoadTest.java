@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers {@link LeaderboardServer#SUBMIT_PATH} with batched submissions and reports the request
+ * rate. Options: --url=http://localhost:8080 --threads=8 --seconds=30 --batch=20 --players=100000
+ */
+public class LeaderboardLoadTest {
+
+    private static final String CHARSET = "UTF-8";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LeaderboardServer.parseArgs(args);
+        final URL url = new URL(LeaderboardServer.getOption(options, "url", "http://localhost:8080")
+                + LeaderboardServer.SUBMIT_PATH);
+        int threads = Integer.parseInt(LeaderboardServer.getOption(options, "threads", "8"));
+        long seconds = Long.parseLong(LeaderboardServer.getOption(options, "seconds", "30"));
+        final int batch = Integer.parseInt(LeaderboardServer.getOption(options, "batch", "20"));
+        final int players = Integer.parseInt(LeaderboardServer.getOption(options, "players", "100000"));
+
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final long deadline = System.currentTimeMillis() + seconds * 1000;
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final long seed = i;
+            workers[i] = new Thread() {
+                @Override
+                public void run() {
+                    Random random = new Random(seed);
+                    Connection connection = new Connection(url);
+                    StringBuilder body = new StringBuilder();
+                    while (System.currentTimeMillis() < deadline) {
+                        body.setLength(0);
+                        for (int j = 0; j < batch; j++) {
+                            body.append("player").append(random.nextInt(players)).append(' ')
+                                    .append(random.nextInt(50000) + 1).append('\n');
+                        }
+                        try {
+                            connection.post(body.toString());
+                            requests.incrementAndGet();
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    connection.close();
+                }
+            };
+            workers[i].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        System.out.println(String.format("%d requests (%d scores) in %ds, %.1f req/s, %d failures",
+                requests.get(), requests.get() * batch, seconds, requests.get() / (double) seconds,
+                failures.get()));
+    }
+
+    /**
+     * Minimal keep-alive HTTP/1.1 client. HttpURLConnection writes headers and body separately
+     * which, with Nagle and delayed ACKs, caps every connection at ~25 requests per second.
+     */
+    private static class Connection {
+
+        private final URL url;
+        private Socket socket;
+        private OutputStream out;
+        private InputStream in;
+
+        public Connection(URL url) {
+            this.url = url;
+        }
+
+        public void post(String body) throws IOException {
+            if (socket == null) {
+                open();
+            }
+            byte[] content = body.getBytes(CHARSET);
+            String headers = "POST " + url.getPath() + " HTTP/1.1\r\n" +
+                    "Host: " + url.getHost() + "\r\n" +
+                    "Content-Type: text/plain; charset=utf-8\r\n" +
+                    "Content-Length: " + content.length + "\r\n\r\n";
+            byte[] headerBytes = headers.getBytes(CHARSET);
+            byte[] request = new byte[headerBytes.length + content.length];
+            System.arraycopy(headerBytes, 0, request, 0, headerBytes.length);
+            System.arraycopy(content, 0, request, headerBytes.length, content.length);
+
+            try {
+                out.write(request);
+                out.flush();
+                readResponse();
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void readResponse() throws IOException {
+            String statusLine = readLine();
+            int contentLength = 0;
+            String line;
+            while ((line = readLine()).length() > 0) {
+                if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Integer.parseInt(line.substring(15).trim());
+                }
+            }
+            for (int i = 0; i < contentLength; i++) {
+                if (in.read() == -1) {
+                    throw new EOFException();
+                }
+            }
+            if (!statusLine.startsWith("HTTP/1.1 200")) {
+                throw new IOException(statusLine);
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c == -1) {
+                    throw new EOFException();
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        private void open() throws IOException {
+            socket = new Socket(url.getHost(), url.getPort() == -1 ? 80 : url.getPort());
+            socket.setTcpNoDelay(true);
+            out = new BufferedOutputStream(socket.getOutputStream());
+            in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        public void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Already broken
+                }
+                socket = null;
+            }
+        }
+
+    }
+
+}
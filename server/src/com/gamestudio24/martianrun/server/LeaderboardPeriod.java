@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+public enum LeaderboardPeriod {
+
+    DAILY("daily", 24L * 60 * 60 * 1000, 0),
+    // The epoch was a Thursday, shift by three days so weeks start on Monday
+    WEEKLY("weekly", 7L * 24 * 60 * 60 * 1000, 3L * 24 * 60 * 60 * 1000),
+    ALL_TIME("all_time", 0, 0);
+
+    private String name;
+    private long length;
+    private long offset;
+
+    LeaderboardPeriod(String name, long length, long offset) {
+        this.name = name;
+        this.length = length;
+        this.offset = offset;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param timeMillis UTC time in milliseconds
+     * @return the index of the period the given time falls in, boards with a different index are stale
+     */
+    public long getPeriodIndex(long timeMillis) {
+        return length == 0 ? 0 : (timeMillis + offset) / length;
+    }
+
+    /**
+     * @return the period with the given name or null if there's none
+     */
+    public static LeaderboardPeriod fromName(String name) {
+        for (LeaderboardPeriod period : values()) {
+            if (period.name.equals(name)) {
+                return period;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the leaderboard side of the game's {@code GameEventListener}. Endpoints:
+ * <ul>
+ * <li>POST /submit, body of "player score" lines, one per submission</li>
+ * <li>GET /top?period=daily&amp;count=10</li>
+ * <li>GET /around?period=weekly&amp;player=name&amp;count=5</li>
+ * </ul>
+ * Queries answer "rank player score" lines from the last published window.
+ */
+public class LeaderboardServer {
+
+    public static final String SUBMIT_PATH = "/submit";
+    public static final String TOP_PATH = "/top";
+    public static final String AROUND_PATH = "/around";
+
+    private static final String CHARSET = "UTF-8";
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final int DEFAULT_COUNT = 10;
+    private static final int MAX_COUNT = 100;
+
+    private final LeaderboardService service;
+    private final HttpServer httpServer;
+    private final ScheduledExecutorService scheduler;
+    private final long publishIntervalMillis;
+    private final long snapshotIntervalMillis;
+
+    public LeaderboardServer(int port, int threads, File snapshotDir, long publishIntervalMillis,
+                             long snapshotIntervalMillis) throws IOException {
+        this.publishIntervalMillis = publishIntervalMillis;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        service = new LeaderboardService(snapshotDir);
+        service.loadSnapshots();
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.setExecutor(Executors.newFixedThreadPool(threads));
+        httpServer.createContext(SUBMIT_PATH, new SubmitHandler());
+        httpServer.createContext(TOP_PATH, new TopHandler());
+        httpServer.createContext(AROUND_PATH, new AroundHandler());
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    public void start() {
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                service.tick(System.currentTimeMillis());
+            }
+        }, publishIntervalMillis, publishIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                saveSnapshots();
+            }
+        }, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        httpServer.start();
+    }
+
+    public void stop() {
+        httpServer.stop(1);
+        scheduler.shutdownNow();
+        service.tick(System.currentTimeMillis());
+        saveSnapshots();
+    }
+
+    private void saveSnapshots() {
+        try {
+            service.saveSnapshots();
+        } catch (IOException e) {
+            System.err.println("Couldn't save leaderboard snapshots: " + e.getMessage());
+        }
+    }
+
+    private class SubmitHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "POST only\n");
+                return;
+            }
+
+            int accepted = 0;
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(exchange.getRequestBody(), CHARSET));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.lastIndexOf(' ');
+                if (separator <= 0) {
+                    continue;
+                }
+                try {
+                    int score = Integer.parseInt(line.substring(separator + 1).trim());
+                    if (score > 0) {
+                        service.submit(line.substring(0, separator).trim(), score);
+                        accepted++;
+                    }
+                } catch (NumberFormatException e) {
+                    // Skip the malformed line, the rest of the batch is still good
+                }
+            }
+
+            respond(exchange, 200, "OK " + accepted + "\n");
+        }
+
+    }
+
+    private class TopHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> query = parseQuery(exchange);
+            LeaderboardPeriod period = getPeriod(query);
+            if (period == null) {
+                respond(exchange, 400, "Unknown period\n");
+                return;
+            }
+
+            StringBuilder builder = new StringBuilder();
+            service.getWindow(period).appendRange(builder, 0, getCount(query));
+            respond(exchange, 200, builder.toString());
+        }
+
+    }
+
+    private class AroundHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            Map<String, String> query = parseQuery(exchange);
+            LeaderboardPeriod period = getPeriod(query);
+            String player = query.get("player");
+            if (period == null || player == null) {
+                respond(exchange, 400, "Missing period or player\n");
+                return;
+            }
+
+            LeaderboardWindow window = service.getWindow(period);
+            int rank = window.getRank(player);
+            if (rank < 0) {
+                respond(exchange, 404, "Unknown player\n");
+                return;
+            }
+
+            int count = getCount(query);
+            StringBuilder builder = new StringBuilder();
+            window.appendRange(builder, rank - count, rank + count + 1);
+            respond(exchange, 200, builder.toString());
+        }
+
+    }
+
+    private static LeaderboardPeriod getPeriod(Map<String, String> query) {
+        String name = query.get("period");
+        return name == null ? LeaderboardPeriod.ALL_TIME : LeaderboardPeriod.fromName(name);
+    }
+
+    private static int getCount(Map<String, String> query) {
+        try {
+            String count = query.get("count");
+            return count == null ? DEFAULT_COUNT : Math.max(0, Math.min(MAX_COUNT, Integer.parseInt(count)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_COUNT;
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<String, String>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), CHARSET),
+                        URLDecoder.decode(pair.substring(separator + 1), CHARSET));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(CHARSET);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Options: --port=8080 --threads=N --snapshot-dir=leaderboard --publish-ms=250
+     * --snapshot-seconds=30
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseArgs(args);
+        int port = Integer.parseInt(getOption(options, "port", "8080"));
+        int threads = Integer.parseInt(getOption(options, "threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors() * 2)));
+        File snapshotDir = new File(getOption(options, "snapshot-dir", "leaderboard"));
+        long publishMillis = Long.parseLong(getOption(options, "publish-ms", "250"));
+        long snapshotMillis = Long.parseLong(getOption(options, "snapshot-seconds", "30")) * 1000;
+
+        // Without TCP_NODELAY every keep-alive response waits for the client's delayed ACK
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+
+        final LeaderboardServer server = new LeaderboardServer(port, threads, snapshotDir,
+                publishMillis, snapshotMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                server.stop();
+            }
+        });
+        server.start();
+        System.out.println("Leaderboard server listening on port " + port);
+    }
+
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<String, String>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    static String getOption(Map<String, String> options, String key, String defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+
+/**
+ * Holds one {@link Leaderboard} per {@link LeaderboardPeriod} and takes care of period roll
+ * over, publishing and disk snapshots
+ */
+public class LeaderboardService {
+
+    private static final String SNAPSHOT_EXTENSION = ".bin";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private final EnumMap<LeaderboardPeriod, Leaderboard> leaderboards;
+    private final File snapshotDir;
+
+    public LeaderboardService(File snapshotDir) {
+        this.snapshotDir = snapshotDir;
+        leaderboards = new EnumMap<LeaderboardPeriod, Leaderboard>(LeaderboardPeriod.class);
+        long now = System.currentTimeMillis();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            leaderboards.put(period, new Leaderboard(period, period.getPeriodIndex(now)));
+        }
+    }
+
+    /**
+     * Submits a score to every period
+     *
+     * @return true if it was a new best in at least one period
+     */
+    public boolean submit(String player, int score) {
+        boolean kept = false;
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            kept |= leaderboard.submit(player, score);
+        }
+        return kept;
+    }
+
+    public LeaderboardWindow getWindow(LeaderboardPeriod period) {
+        return leaderboards.get(period).getWindow();
+    }
+
+    /**
+     * Called at a fixed rate, expires finished periods and republishes changed boards
+     */
+    public void tick(long timeMillis) {
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            leaderboard.rollOver(timeMillis);
+            leaderboard.publish();
+        }
+    }
+
+    public void loadSnapshots() throws IOException {
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            File file = getSnapshotFile(leaderboard.getPeriod(), SNAPSHOT_EXTENSION);
+            if (!file.isFile()) {
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                leaderboard.read(in);
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Writes every board to a temporary file first so a crash mid-write never corrupts the last
+     * good snapshot
+     */
+    public synchronized void saveSnapshots() throws IOException {
+        if (!snapshotDir.isDirectory() && !snapshotDir.mkdirs()) {
+            throw new IOException("Couldn't create " + snapshotDir);
+        }
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            File temp = getSnapshotFile(leaderboard.getPeriod(), TEMP_EXTENSION);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                leaderboard.write(out);
+            } finally {
+                out.close();
+            }
+            File file = getSnapshotFile(leaderboard.getPeriod(), SNAPSHOT_EXTENSION);
+            if (file.exists() && !file.delete() || !temp.renameTo(file)) {
+                throw new IOException("Couldn't replace " + file);
+            }
+        }
+    }
+
+    private File getSnapshotFile(LeaderboardPeriod period, String extension) {
+        return new File(snapshotDir, period.getName() + extension);
+    }
+
+}
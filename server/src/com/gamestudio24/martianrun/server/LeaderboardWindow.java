@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, ranked copy of a {@link Leaderboard}. Windows are rebuilt periodically and
+ * shared by every query until the next rebuild, so top-K and around-me lookups never sort.
+ */
+public class LeaderboardWindow {
+
+    public static final LeaderboardWindow EMPTY = new LeaderboardWindow(new String[0], new int[0]);
+
+    private final String[] players;
+    private final int[] scores;
+    private final HashMap<String, Integer> ranks;
+
+    private LeaderboardWindow(String[] players, int[] scores) {
+        this.players = players;
+        this.scores = scores;
+        ranks = new HashMap<String, Integer>(players.length * 2);
+        for (int i = 0; i < players.length; i++) {
+            ranks.put(players[i], i);
+        }
+    }
+
+    /**
+     * Ranks the given best scores, highest first. Ties keep iteration order.
+     */
+    public static LeaderboardWindow build(Map<String, Integer> bestScores) {
+        String[] names = new String[bestScores.size()];
+        int[] values = new int[names.length];
+        int count = 0;
+
+        // The map may keep changing while we copy it
+        for (Map.Entry<String, Integer> entry : bestScores.entrySet()) {
+            if (count == names.length) {
+                names = Arrays.copyOf(names, count * 2 + 1);
+                values = Arrays.copyOf(values, names.length);
+            }
+            names[count] = entry.getKey();
+            values[count] = entry.getValue();
+            count++;
+        }
+
+        // Pack the inverted score and the index in one long so a primitive sort does the ranking
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) (Integer.MAX_VALUE - values[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        String[] rankedPlayers = new String[count];
+        int[] rankedScores = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int) keys[i];
+            rankedPlayers[i] = names[index];
+            rankedScores[i] = values[index];
+        }
+
+        return new LeaderboardWindow(rankedPlayers, rankedScores);
+    }
+
+    public int size() {
+        return players.length;
+    }
+
+    public String getPlayer(int rank) {
+        return players[rank];
+    }
+
+    public int getScore(int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * @return the zero-based rank of the given player or -1 if he hasn't submitted a score
+     */
+    public int getRank(String player) {
+        Integer rank = ranks.get(player);
+        return rank == null ? -1 : rank;
+    }
+
+    /**
+     * Appends the entries in [from, to) as "rank player score" lines, ranks starting at 1
+     */
+    public void appendRange(StringBuilder builder, int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(size(), to);
+        for (int i = from; i < to; i++) {
+            builder.append(i + 1).append('\t').append(players[i]).append('\t').append(scores[i])
+                    .append('\n');
+        }
+    }
+
+}
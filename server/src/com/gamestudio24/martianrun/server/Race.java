@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import com.gamestudio24.martianrun.race.RaceProtocol;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Racers running the same seed at the same time. Their sessions may be stepped on different
+ * threads, so the standings are atomics each session writes to its own slot.
+ */
+public class Race {
+
+    private final long seed;
+    // score << 1 | 1 while running
+    private final AtomicIntegerArray standings;
+    private final AtomicInteger joined = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+
+    public Race(long seed, int racers) {
+        if (racers < 1 || racers > RaceProtocol.MAX_RACERS) {
+            throw new IllegalArgumentException("A race takes 1 to " + RaceProtocol.MAX_RACERS + " racers");
+        }
+        this.seed = seed;
+        standings = new AtomicIntegerArray(racers);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the new racer's slot, or -1 if the race is full
+     */
+    int join() {
+        int racer = joined.getAndIncrement();
+        if (racer >= standings.length()) {
+            joined.decrementAndGet();
+            return -1;
+        }
+        standings.lazySet(racer, 1);
+        return racer;
+    }
+
+    void update(int racer, int score, boolean running) {
+        standings.lazySet(racer, score << 1 | (running ? 1 : 0));
+    }
+
+    void finish(int racer) {
+        finished.incrementAndGet();
+    }
+
+    public int getRacerCount() {
+        return standings.length();
+    }
+
+    /**
+     * @return score &lt;&lt; 1 | 1 while running, the wire format of
+     * {@link RaceProtocol#STANDINGS}
+     */
+    public int getStanding(int racer) {
+        return standings.get(racer);
+    }
+
+    /**
+     * @return true once every slot was taken and every session has ended
+     */
+    public boolean isFinished() {
+        return finished.get() == standings.length();
+    }
+
+}
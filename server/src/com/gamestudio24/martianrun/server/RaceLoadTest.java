@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import com.gamestudio24.martianrun.enums.InputAction;
+import com.gamestudio24.martianrun.race.LoopbackConnection;
+import com.gamestudio24.martianrun.race.RaceClientState;
+import com.gamestudio24.martianrun.race.RaceProtocol;
+import com.gamestudio24.martianrun.utils.GameRandom;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Keeps a {@link RaceServer} busy with loopback racers pressing random inputs and reports what
+ * matters when packing sessions: step cost, overruns and heap per session. Finished races are
+ * replaced so the session count holds. Options: --sessions=2000 --racers=8 --threads=(cores)
+ * --seconds=30 --seed=42
+ */
+public class RaceLoadTest {
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long POLL_MILLIS = Math.round(RaceServer.TICK * 1000);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LeaderboardServer.parseArgs(args);
+        int sessions = Integer.parseInt(LeaderboardServer.getOption(options, "sessions", "2000"));
+        int racers = Integer.parseInt(LeaderboardServer.getOption(options, "racers", "8"));
+        int threads = Integer.parseInt(LeaderboardServer.getOption(options, "threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seconds = Long.parseLong(LeaderboardServer.getOption(options, "seconds", "30"));
+        GameRandom random = new GameRandom(Long.parseLong(LeaderboardServer.getOption(options, "seed", "42")));
+
+        RaceServer server = new RaceServer(threads);
+        Racer[][] races = new Racer[(sessions + racers - 1) / racers][];
+        long heapBefore = getUsedHeap();
+        for (int i = 0; i < races.length; i++) {
+            races[i] = startRace(server, random, racers);
+        }
+        long heapPerSession = (getUsedHeap() - heapBefore) / (races.length * racers);
+
+        server.start();
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + seconds * 1000;
+        int racesRun = 0;
+        long received = 0;
+        while (System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < races.length; i++) {
+                boolean finished = true;
+                for (Racer racer : races[i]) {
+                    finished &= racer.update();
+                    received += racer.takeReceivedBytes();
+                }
+                if (finished) {
+                    races[i] = startRace(server, random, racers);
+                    racesRun++;
+                }
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        server.stop();
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        System.out.println(String.format("%d sessions on %d threads for %.1fs, %d races finished",
+                races.length * racers, threads, elapsed / 1000f, racesRun));
+        System.out.println(String.format("%d steps, mean %.1fus, max %.1fus, %d overruns",
+                server.getSteps(), server.getMeanStepNanos() / 1000, server.getMaxStepNanos() / 1000f,
+                server.getOverruns()));
+        System.out.println(String.format("%.1f KB heap per session, %.1f bytes/s per session downstream",
+                heapPerSession / 1024f, received * 1000f / elapsed / (races.length * racers)));
+    }
+
+    private static Racer[] startRace(RaceServer server, GameRandom random, int racers) {
+        Race race = server.createRace(random.nextLong(), racers);
+        Racer[] clients = new Racer[racers];
+        for (int i = 0; i < racers; i++) {
+            LoopbackConnection[] ends = LoopbackConnection.connect(QUEUE_CAPACITY);
+            clients[i] = new Racer(ends[0], random.split());
+            server.join(race, ends[1]);
+        }
+        return clients;
+    }
+
+    private static long getUsedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class Racer {
+
+        // Odds per poll, a jump about every second and a half
+        private static final int JUMP_CHANCE = 90;
+        private static final int DODGE_CHANCE = 180;
+        private static final int STOP_DODGE_CHANCE = 30;
+
+        private final LoopbackConnection connection;
+        private final GameRandom random;
+        private final RaceClientState state = new RaceClientState();
+        private final ByteBuffer buffer = ByteBuffer.allocate(RaceProtocol.MAX_MESSAGE_SIZE);
+        private int sequence;
+        private boolean dodging;
+        private long receivedBytes;
+
+        public Racer(LoopbackConnection connection, GameRandom random) {
+            this.connection = connection;
+            this.random = random;
+        }
+
+        /**
+         * @return true once the server closed the session and everything it sent was read
+         */
+        public boolean update() {
+            boolean closed = connection.isClosed();
+            while (connection.receive(buffer)) {
+                receivedBytes += buffer.remaining();
+                state.read(buffer);
+            }
+            if (closed || state.isOver()) {
+                return closed;
+            }
+
+            if (dodging) {
+                if (random.nextInt(STOP_DODGE_CHANCE) == 0) {
+                    send(InputAction.STOP_DODGE);
+                    dodging = false;
+                }
+            } else if (random.nextInt(JUMP_CHANCE) == 0) {
+                send(InputAction.JUMP);
+            } else if (random.nextInt(DODGE_CHANCE) == 0) {
+                send(InputAction.DODGE);
+                dodging = true;
+            }
+            return false;
+        }
+
+        private void send(InputAction action) {
+            RaceProtocol.writeInput(buffer, action, ++sequence);
+            connection.send(buffer);
+        }
+
+        public long takeReceivedBytes() {
+            long bytes = receivedBytes;
+            receivedBytes = 0;
+            return bytes;
+        }
+
+    }
+
+}
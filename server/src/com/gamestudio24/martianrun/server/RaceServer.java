@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import com.gamestudio24.martianrun.race.RaceConnection;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts race sessions in this JVM. Sessions are spread over a fixed number of shards, each one a
+ * periodic task stepping all of its sessions once per tick, so thousands of sessions share a
+ * thread per core instead of a thread each. A session only ever runs on its shard's thread.
+ */
+public class RaceServer {
+
+    public static final float TICK = 1 / 60f;
+
+    private static final long TICK_NANOS = Math.round(TICK * 1e9);
+
+    private final Shard[] shards;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public RaceServer(int threads) {
+        shards = new Shard[threads];
+        for (int i = 0; i < threads; i++) {
+            shards[i] = new Shard();
+        }
+        executor = Executors.newScheduledThreadPool(threads);
+    }
+
+    public void start() {
+        for (Shard shard : shards) {
+            executor.scheduleAtFixedRate(shard, 0, TICK_NANOS, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops stepping and ends every session still running
+     */
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        for (Shard shard : shards) {
+            shard.endAll();
+        }
+    }
+
+    public Race createRace(long seed, int racers) {
+        return new Race(seed, racers);
+    }
+
+    /**
+     * Starts a session for the connection in the given race, from any thread
+     *
+     * @return false if the race was already full
+     */
+    public boolean join(Race race, RaceConnection connection) {
+        int racer = race.join();
+        if (racer == -1) {
+            return false;
+        }
+        RaceSession session = new RaceSession(race, racer, connection);
+        shards[(nextShard.getAndIncrement() & Integer.MAX_VALUE) % shards.length].joining.add(session);
+        return true;
+    }
+
+    public int getSessionCount() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.sessionCount;
+        }
+        return count;
+    }
+
+    /**
+     * @return session ticks stepped so far
+     */
+    public long getSteps() {
+        long steps = 0;
+        for (Shard shard : shards) {
+            steps += shard.steps.get();
+        }
+        return steps;
+    }
+
+    public double getMeanStepNanos() {
+        long nanos = 0;
+        for (Shard shard : shards) {
+            nanos += shard.stepNanos.get();
+        }
+        long steps = getSteps();
+        return steps > 0 ? nanos / (double) steps : 0;
+    }
+
+    public long getMaxStepNanos() {
+        long max = 0;
+        for (Shard shard : shards) {
+            max = Math.max(max, shard.maxStepNanos);
+        }
+        return max;
+    }
+
+    /**
+     * @return shard ticks that took longer than {@link #TICK}, a sign of too many sessions per
+     * thread
+     */
+    public long getOverruns() {
+        long overruns = 0;
+        for (Shard shard : shards) {
+            overruns += shard.overruns.get();
+        }
+        return overruns;
+    }
+
+    private static class Shard implements Runnable {
+
+        private final ConcurrentLinkedQueue<RaceSession> joining = new ConcurrentLinkedQueue<RaceSession>();
+        private final ArrayList<RaceSession> sessions = new ArrayList<RaceSession>();
+
+        // Only written by the shard's thread
+        private final AtomicLong steps = new AtomicLong();
+        private final AtomicLong stepNanos = new AtomicLong();
+        private final AtomicLong overruns = new AtomicLong();
+        private volatile long maxStepNanos;
+        private volatile int sessionCount;
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            RaceSession joined;
+            while ((joined = joining.poll()) != null) {
+                sessions.add(joined);
+            }
+
+            long max = maxStepNanos;
+            long last = start;
+            int ticked = 0;
+            int i = 0;
+            while (i < sessions.size()) {
+                RaceSession session = sessions.get(i);
+                boolean running;
+                try {
+                    running = session.tick(TICK);
+                } catch (RuntimeException e) {
+                    System.err.println("Race session failed: " + e);
+                    session.end();
+                    running = false;
+                }
+                if (running) {
+                    i++;
+                } else {
+                    // Order doesn't matter, swap the last one in
+                    sessions.set(i, sessions.get(sessions.size() - 1));
+                    sessions.remove(sessions.size() - 1);
+                }
+                ticked++;
+                long now = System.nanoTime();
+                max = Math.max(max, now - last);
+                last = now;
+            }
+
+            sessionCount = sessions.size();
+            maxStepNanos = max;
+            steps.lazySet(steps.get() + ticked);
+            stepNanos.lazySet(stepNanos.get() + last - start);
+            if (last - start > TICK_NANOS) {
+                overruns.lazySet(overruns.get() + 1);
+            }
+        }
+
+        void endAll() {
+            RaceSession joined;
+            while ((joined = joining.poll()) != null) {
+                sessions.add(joined);
+            }
+            for (RaceSession session : sessions) {
+                session.end();
+            }
+            sessions.clear();
+            sessionCount = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2014. William Mora
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gamestudio24.martianrun.server;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.gamestudio24.martianrun.box2d.EnemyUserData;
+import com.gamestudio24.martianrun.box2d.RunnerUserData;
+import com.gamestudio24.martianrun.enums.Difficulty;
+import com.gamestudio24.martianrun.race.RaceConnection;
+import com.gamestudio24.martianrun.race.RaceProtocol;
+import com.gamestudio24.martianrun.simulation.GameSimulation;
+import com.gamestudio24.martianrun.simulation.SimulationListener;
+import com.gamestudio24.martianrun.utils.GameRandom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One racer's authoritative run: a {@link GameSimulation} on the race's seed, fed with the
+ * racer's inputs and reported back as {@link RaceProtocol} deltas. Only ever touched by the
+ * thread stepping it, and nothing is allocated per tick.
+ */
+public class RaceSession implements SimulationListener {
+
+    // Every second at 60 ticks per second
+    private static final int STANDINGS_INTERVAL = 60;
+
+    private final Race race;
+    private final int racer;
+    private final RaceConnection connection;
+    private final GameSimulation simulation;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RaceProtocol.MAX_MESSAGE_SIZE);
+    private final byte[] spawns = new byte[RaceProtocol.MAX_SPAWNS];
+
+    private int frame;
+    private int spawnCount;
+    private boolean hit;
+    private int lastInput;
+    private int sentInput;
+    private int sentScore = -1;
+    private short sentX;
+    private short sentY;
+    private short sentAngle;
+    private byte sentFlags = -1;
+
+    public RaceSession(Race race, int racer, RaceConnection connection) {
+        this.race = race;
+        this.racer = racer;
+        this.connection = connection;
+        simulation = new GameSimulation(new GameRandom(race.getSeed()), this);
+        simulation.start();
+    }
+
+    /**
+     * Applies the inputs received since the last tick, steps the simulation and sends what
+     * changed
+     *
+     * @return false once the session has ended and was disposed
+     */
+    public boolean tick(float delta) {
+        if (connection.isClosed()) {
+            end();
+            return false;
+        }
+
+        while (connection.receive(buffer)) {
+            if (buffer.get() == RaceProtocol.INPUT) {
+                simulation.queueInput(RaceProtocol.readInputAction(buffer), 0);
+                lastInput = RaceProtocol.getVarInt(buffer);
+            }
+        }
+
+        simulation.update(delta);
+        frame++;
+        race.update(racer, simulation.getScore(), simulation.isRunning());
+        connection.send(writeState());
+        if (frame % STANDINGS_INTERVAL == 0) {
+            connection.send(writeStandings());
+        }
+
+        if (simulation.isOver() && simulation.isSettled()) {
+            end();
+            return false;
+        }
+        return true;
+    }
+
+    private ByteBuffer writeState() {
+        buffer.clear();
+        buffer.put(RaceProtocol.STATE);
+        RaceProtocol.putVarInt(buffer, frame);
+        int fieldsPosition = buffer.position();
+        buffer.put((byte) 0);
+
+        int fields = 0;
+        Body runnerBody = simulation.getRunnerBody();
+        if (runnerBody != null) {
+            short x = RaceProtocol.quantizePosition(runnerBody.getPosition().x);
+            short y = RaceProtocol.quantizePosition(runnerBody.getPosition().y);
+            short angle = RaceProtocol.quantizeAngle(runnerBody.getAngle());
+            byte flags = getRunnerFlags();
+            if (x != sentX || y != sentY || angle != sentAngle || flags != sentFlags) {
+                fields |= RaceProtocol.RUNNER_FIELD;
+                buffer.putShort(x).putShort(y).putShort(angle).put(flags);
+                sentX = x;
+                sentY = y;
+                sentAngle = angle;
+                sentFlags = flags;
+            }
+        }
+
+        int score = simulation.getScore();
+        if (score != sentScore) {
+            fields |= RaceProtocol.SCORE_FIELD;
+            RaceProtocol.putVarInt(buffer, score);
+            sentScore = score;
+        }
+
+        if (lastInput != sentInput) {
+            fields |= RaceProtocol.ACK_FIELD;
+            RaceProtocol.putVarInt(buffer, lastInput);
+            sentInput = lastInput;
+        }
+
+        if (spawnCount > 0) {
+            fields |= RaceProtocol.SPAWN_FIELD;
+            buffer.put((byte) spawnCount);
+            buffer.put(spawns, 0, spawnCount);
+            spawnCount = 0;
+        }
+
+        if (hit) {
+            fields |= RaceProtocol.OVER_FIELD;
+            hit = false;
+        }
+
+        buffer.put(fieldsPosition, (byte) fields);
+        buffer.flip();
+        return buffer;
+    }
+
+    private byte getRunnerFlags() {
+        RunnerUserData userData = simulation.getRunnerUserData();
+        byte flags = 0;
+        if (userData.isJumping()) {
+            flags |= RaceProtocol.JUMPING_FLAG;
+        }
+        if (userData.isDodging()) {
+            flags |= RaceProtocol.DODGING_FLAG;
+        }
+        if (userData.isHit()) {
+            flags |= RaceProtocol.HIT_FLAG;
+        }
+        return flags;
+    }
+
+    private ByteBuffer writeStandings() {
+        buffer.clear();
+        buffer.put(RaceProtocol.STANDINGS);
+        int racers = race.getRacerCount();
+        RaceProtocol.putVarInt(buffer, racers);
+        for (int i = 0; i < racers; i++) {
+            RaceProtocol.putVarInt(buffer, race.getStanding(i));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Frees the simulation and closes the connection, also used when the server stops
+     */
+    void end() {
+        simulation.dispose();
+        connection.close();
+        race.finish(racer);
+    }
+
+    @Override
+    public void onEnemySpawned(Body body) {
+        if (spawnCount < spawns.length) {
+            spawns[spawnCount++] = (byte) ((EnemyUserData) body.getUserData()).getEnemyType().ordinal();
+        }
+    }
+
+    @Override
+    public void onJump() {
+    }
+
+    @Override
+    public void onDifficultyChange(Difficulty difficulty) {
+    }
+
+    @Override
+    public void onRunnerHit() {
+        hit = true;
+    }
+
+}